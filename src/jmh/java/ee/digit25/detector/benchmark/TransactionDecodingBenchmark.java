@@ -0,0 +1,85 @@
+package ee.digit25.detector.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ee.digit25.detector.DetectorApplication;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding an unverified transactions response body with the {@link ObjectMapper} the Retrofit apis decode
+ * with, taken from a detector context that has the pipeline and preloading switched off. The body is written the way
+ * the service sends it, with ISO dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionDecodingBenchmark {
+
+    @Param({"50", "500"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        context = new SpringApplicationBuilder(DetectorApplication.class)
+                .run("--detector.pipeline.enabled=false", "--detector.preload.enabled=false");
+        reader = context.getBean(ObjectMapper.class).readerForListOf(Transaction.class);
+
+        ObjectMapper service = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<Transaction> transactions = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            transactions.add(new Transaction(
+                    UUID.randomUUID().toString(),
+                    new BigDecimal("1234.56"),
+                    String.format("3%010d", i),
+                    String.format("4%010d", i),
+                    String.format("EE%018d", i),
+                    String.format("EE%018d", i + batchSize),
+                    String.format("00:1A:00:00:%02X:%02X", (i >> 8) & 0xFF, i & 0xFF),
+                    now,
+                    now.plusSeconds(5)
+            ));
+        }
+        body = service.writeValueAsString(transactions).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> decode() throws IOException {
+        return reader.readValue(body);
+    }
+}
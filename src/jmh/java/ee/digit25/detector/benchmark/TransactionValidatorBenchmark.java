@@ -0,0 +1,164 @@
+package ee.digit25.detector.benchmark;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.account.AccountIndex;
+import ee.digit25.detector.domain.account.AccountLedger;
+import ee.digit25.detector.domain.account.AccountValidator;
+import ee.digit25.detector.domain.account.LedgerProperties;
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.DeviceIndex;
+import ee.digit25.detector.domain.device.DeviceValidator;
+import ee.digit25.detector.domain.device.external.api.Device;
+import ee.digit25.detector.domain.person.PersonIndex;
+import ee.digit25.detector.domain.person.PersonValidator;
+import ee.digit25.detector.domain.person.external.api.Person;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.TransactionValidator;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import ee.digit25.detector.domain.transaction.rule.AmountRule;
+import ee.digit25.detector.domain.transaction.rule.DeviceRule;
+import ee.digit25.detector.domain.transaction.rule.RecipientAccountRule;
+import ee.digit25.detector.domain.transaction.rule.RecipientPersonRule;
+import ee.digit25.detector.domain.transaction.rule.RequiredFieldsRule;
+import ee.digit25.detector.domain.transaction.rule.RuleProperties;
+import ee.digit25.detector.domain.transaction.rule.SameAccountRule;
+import ee.digit25.detector.domain.transaction.rule.SenderAccountRule;
+import ee.digit25.detector.domain.transaction.rule.SenderPersonRule;
+import ee.digit25.detector.domain.transaction.rule.TimestampRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of running the rules over a batch of 50 transactions once their entities are known, either from resolved
+ * entities or from the preloaded indices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionValidatorBenchmark {
+
+    private static final int ENTITIES = 10_000;
+    private static final int BATCH = 50;
+
+    @Param({"resolved", "indexed"})
+    public String source;
+
+    private TransactionValidator validator;
+    private ResolvedEntities entities;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setup() {
+        PersonIndex personIndex = new PersonIndex();
+        DeviceIndex deviceIndex = new DeviceIndex();
+        AccountIndex accountIndex = new AccountIndex();
+        AccountLedger ledger = new AccountLedger(new LedgerProperties());
+
+        PersonValidator personValidator = new PersonValidator(personIndex);
+        DeviceValidator deviceValidator = new DeviceValidator(deviceIndex);
+        AccountValidator accountValidator = new AccountValidator(accountIndex, ledger);
+        validator = new TransactionValidator(
+                List.of(
+                        new RequiredFieldsRule(),
+                        new SameAccountRule(),
+                        new AmountRule(),
+                        new TimestampRule(),
+                        new SenderPersonRule(personValidator),
+                        new RecipientPersonRule(personValidator),
+                        new DeviceRule(deviceValidator),
+                        new RecipientAccountRule(accountValidator),
+                        new SenderAccountRule(accountValidator)
+                ),
+                new RuleProperties(),
+                null,
+                new Metrics()
+        );
+
+        Map<String, Person> persons = new HashMap<>();
+        Map<String, Device> devices = new HashMap<>();
+        Map<String, Account> accounts = new HashMap<>();
+        for (int i = 0; i < ENTITIES; i++) {
+            Random random = new Random(i);
+            persons.put(code(i), new Person("First", "Last", code(i), random.nextInt(20) == 0, true, false));
+
+            Device device = new Device();
+            device.setMac(mac(i));
+            device.setIsBlacklisted(random.nextInt(20) == 0);
+            devices.put(mac(i), device);
+
+            accounts.put(account(i), new Account(account(i), code(i), false, new BigDecimal("1000000000000.00")));
+            ledger.reconcile(account(i), Long.MAX_VALUE / 4, System.nanoTime());
+        }
+
+        if ("indexed".equals(source)) {
+            PersonIndex.Builder personBuilder = personIndex.builder();
+            persons.values().forEach(personBuilder::add);
+            personBuilder.publish();
+
+            DeviceIndex.Builder deviceBuilder = deviceIndex.builder();
+            devices.values().forEach(deviceBuilder::add);
+            deviceBuilder.publish();
+
+            AccountIndex.Builder accountBuilder = accountIndex.builder();
+            accounts.values().forEach(accountBuilder::add);
+            accountBuilder.publish();
+
+            entities = ResolvedEntities.NONE;
+        } else {
+            entities = new ResolvedEntities(persons, devices, accounts);
+        }
+
+        Random random = new Random(42);
+        transactions = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            int sender = random.nextInt(ENTITIES);
+            int recipient = random.nextInt(ENTITIES);
+            transactions.add(new Transaction(
+                    "tx-" + i,
+                    new BigDecimal("12.34"),
+                    code(sender),
+                    code(recipient),
+                    account(sender),
+                    account(recipient),
+                    mac(random.nextInt(ENTITIES)),
+                    LocalDateTime.now(),
+                    LocalDateTime.now().plusSeconds(5)
+            ));
+        }
+    }
+
+    @Benchmark
+    public void decide(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(validator.decide(transaction, entities));
+        }
+    }
+
+    private static String code(int i) {
+        return String.format("3%010d", i);
+    }
+
+    private static String mac(int i) {
+        return String.format("00:1A:00:00:%02X:%02X", (i >> 8) & 0xFF, i & 0xFF);
+    }
+
+    private static String account(int i) {
+        return String.format("EE%018d", i);
+    }
+}
@@ -0,0 +1,43 @@
+package ee.digit25.detector.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Millisecond resolution histogram up to one minute, everything slower lands in the last bucket.
+ */
+class LatencyHistogram {
+
+    private static final int BUCKETS = 60_001;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long millis) {
+        counts.incrementAndGet((int) Math.max(0, Math.min(BUCKETS - 1, millis)));
+    }
+
+    long percentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return BUCKETS - 1;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ee.digit25.detector.benchmark;
+
+import ee.digit25.detector.DetectorApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the real detector end to end against {@link StubDetectorService} and prints throughput, decision latency,
+ * deadline misses and requests per transaction. Program arguments are passed on to the detector, e.g.
+ * {@code ./gradlew loadTest --args='--detector.execution.mode=ASYNC'}. The report is also written to
+ * {@code build/reports/loadtest} so runs can be compared against a baseline.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        StubDetectorService stub = new StubDetectorService(settings);
+        stub.start();
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--default-base-url=" + stub.baseUrl());
+        arguments.add("--detector.token=load-test");
+        arguments.addAll(List.of(args));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DetectorApplication.class)
+                .run(arguments.toArray(new String[0]));
+
+        Thread.sleep(settings.warmup().toMillis());
+        stub.reset();
+        long start = System.nanoTime();
+        Thread.sleep(settings.duration().toMillis());
+        LoadTestReport report = stub.report((System.nanoTime() - start) / 1e9);
+
+        context.close();
+        stub.stop();
+
+        String formatted = "Load test " + settings + System.lineSeparator()
+                + "Arguments " + List.of(args) + System.lineSeparator()
+                + report.format();
+        System.out.println(formatted);
+
+        Path directory = Path.of("build", "reports", "loadtest");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt"), formatted);
+    }
+}
@@ -0,0 +1,32 @@
+package ee.digit25.detector.benchmark;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+record LoadTestReport(
+        double seconds,
+        long decided,
+        long correct,
+        long deadlineMisses,
+        long expiredUndecided,
+        long p50LatencyMs,
+        long p99LatencyMs,
+        long requests,
+        long throttled,
+        Map<String, Long> requestsPerEndpoint
+) {
+
+    String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("duration            %.1f s%n", seconds));
+        report.append(String.format("decided             %d (%.1f tx/s)%n", decided, decided / seconds));
+        report.append(String.format("accuracy            %.2f%%%n", decided == 0 ? 0 : 100.0 * correct / decided));
+        report.append(String.format("decision latency    p50 %d ms, p99 %d ms%n", p50LatencyMs, p99LatencyMs));
+        report.append(String.format("deadline misses     %d late verdicts, %d expired undecided%n", deadlineMisses, expiredUndecided));
+        report.append(String.format("requests            %d (%.2f per transaction), %d throttled%n",
+                requests, decided == 0 ? 0 : (double) requests / decided, throttled));
+        new TreeMap<>(requestsPerEndpoint).forEach((endpoint, count) ->
+                report.append(String.format("  %-24s %d%n", endpoint, count)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package ee.digit25.detector.benchmark;
+
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties, e.g.
+ * {@code ./gradlew loadTest -Dloadtest.duration=PT2M -Dloadtest.latency-mean-ms=40}.
+ */
+public record LoadTestSettings(
+        Duration duration,
+        Duration warmup,
+        long seed,
+        int persons,
+        int devices,
+        double fraudRatio,
+        double keySkew,
+        long latencyMinMs,
+        long latencyMeanMs,
+        long deadlineMinMs,
+        long deadlineMaxMs,
+        int maxConcurrentRequests,
+        int maxPending
+) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.parse(property("duration", "PT60S")),
+                Duration.parse(property("warmup", "PT10S")),
+                Long.parseLong(property("seed", "42")),
+                Integer.parseInt(property("persons", "20000")),
+                Integer.parseInt(property("devices", "10000")),
+                Double.parseDouble(property("fraud-ratio", "0.2")),
+                Double.parseDouble(property("key-skew", "2.0")),
+                Long.parseLong(property("latency-min-ms", "5")),
+                Long.parseLong(property("latency-mean-ms", "20")),
+                Long.parseLong(property("deadline-min-ms", "1000")),
+                Long.parseLong(property("deadline-max-ms", "5000")),
+                Integer.parseInt(property("max-concurrent-requests", "50")),
+                Integer.parseInt(property("max-pending", "10000"))
+        );
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,188 @@
+package ee.digit25.detector.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic persons, devices and accounts plus a generator of transactions over them. A configurable share of
+ * transactions is made fraudulent in one of the ways the detector checks for, the rest is legitimate. Keys are picked
+ * with a power law skew so hot senders, recipients and devices repeat the way they do in the real service.
+ * <p>
+ * Accounts start with modest balances and verified transactions move money between them, so hot senders run low the
+ * way they do in the real service. A legitimate transaction holds its amount until it is decided, one that does not
+ * fit the sender's balance after the holds of other pending transactions is fraudulent.
+ */
+class StubData {
+
+    private static final double BAD_SHARE = 0.05;
+    private static final long MIN_BALANCE_MINOR = 50_00;
+    private static final long MAX_BALANCE_MINOR = 5_000_00;
+
+    final Map<String, Map<String, Object>> persons = new LinkedHashMap<>();
+    final Map<String, Map<String, Object>> devices = new LinkedHashMap<>();
+    final Map<String, Map<String, Object>> accounts = new LinkedHashMap<>();
+
+    private final List<String> goodPersons = new ArrayList<>();
+    private final List<String> badPersons = new ArrayList<>();
+    private final List<String> goodDevices = new ArrayList<>();
+    private final List<String> badDevices = new ArrayList<>();
+    private final Map<String, String> openAccount = new LinkedHashMap<>();
+    private final Map<String, String> closedAccount = new LinkedHashMap<>();
+    private final Map<String, String> emptyAccount = new LinkedHashMap<>();
+    private final Map<String, BigDecimal> holds = new HashMap<>();
+
+    private final LoadTestSettings settings;
+
+    StubData(LoadTestSettings settings) {
+        this.settings = settings;
+        Random random = new Random(settings.seed());
+
+        for (int i = 0; i < settings.persons(); i++) {
+            String code = String.format("3%010d", i);
+            boolean bad = random.nextDouble() < BAD_SHARE;
+            int flaw = random.nextInt(3);
+
+            Map<String, Object> person = new LinkedHashMap<>();
+            person.put("firstName", "First" + i);
+            person.put("lastName", "Last" + i);
+            person.put("personCode", code);
+            person.put("warrantIssued", bad && flaw == 0);
+            person.put("hasContract", !(bad && flaw == 1));
+            person.put("blacklisted", bad && flaw == 2);
+            persons.put(code, person);
+            (bad ? badPersons : goodPersons).add(code);
+
+            openAccount.put(code, account(code, false, balance(random)));
+            closedAccount.put(code, account(code, true, balance(random)));
+            emptyAccount.put(code, account(code, false, BigDecimal.ZERO));
+        }
+
+        for (int i = 0; i < settings.devices(); i++) {
+            String mac = String.format("00:1A:%02X:%02X:%02X:%02X", (i >> 24) & 0xFF, (i >> 16) & 0xFF, (i >> 8) & 0xFF, i & 0xFF);
+            boolean bad = random.nextDouble() < BAD_SHARE;
+
+            Map<String, Object> device = new LinkedHashMap<>();
+            device.put("mac", mac);
+            device.put("isBlacklisted", bad);
+            devices.put(mac, device);
+            (bad ? badDevices : goodDevices).add(mac);
+        }
+    }
+
+    StubTransaction next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        String sender = pick(goodPersons, random);
+        String recipient = pick(goodPersons, random);
+        while (recipient.equals(sender)) {
+            recipient = pick(goodPersons, random);
+        }
+        String senderAccount = openAccount.get(sender);
+        String recipientAccount = openAccount.get(recipient);
+        String device = pick(goodDevices, random);
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+
+        boolean fraudulent = random.nextDouble() < settings.fraudRatio();
+        if (fraudulent) {
+            switch (random.nextInt(7)) {
+                case 0 -> sender = pick(badPersons, random);
+                case 1 -> recipient = pick(badPersons, random);
+                case 2 -> device = pick(badDevices, random);
+                case 3 -> senderAccount = closedAccount.get(sender);
+                case 4 -> recipientAccount = closedAccount.get(recipient);
+                case 5 -> senderAccount = openAccount.get(recipient);
+                default -> senderAccount = emptyAccount.get(sender);
+            }
+        }
+
+        boolean held = !fraudulent && hold(senderAccount, amount);
+        if (!fraudulent && !held) {
+            // Insufficient funds once the pending transactions of the sender are taken into account
+            fraudulent = true;
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        long deadlineMs = random.nextLong(settings.deadlineMinMs(), settings.deadlineMaxMs() + 1);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", UUID.randomUUID().toString());
+        json.put("amount", amount);
+        json.put("sender", sender);
+        json.put("recipient", recipient);
+        json.put("senderAccount", senderAccount);
+        json.put("recipientAccount", recipientAccount);
+        json.put("deviceMac", device);
+        json.put("timestamp", now);
+        json.put("deadline", now.plusNanos(deadlineMs * 1_000_000));
+
+        return new StubTransaction(json, fraudulent, held, System.nanoTime(), System.nanoTime() + deadlineMs * 1_000_000);
+    }
+
+    /**
+     * Releases the hold of a decided or expired transaction and, when it was verified, debits the sender account and
+     * credits the recipient account.
+     */
+    synchronized void decide(StubTransaction transaction, boolean verified) {
+        BigDecimal amount = (BigDecimal) transaction.json().get("amount");
+        String senderAccount = (String) transaction.json().get("senderAccount");
+        if (transaction.held()) {
+            holds.merge(senderAccount, amount.negate(), BigDecimal::add);
+        }
+        if (verified) {
+            adjust(senderAccount, amount.negate());
+            adjust((String) transaction.json().get("recipientAccount"), amount);
+        }
+    }
+
+    private synchronized boolean hold(String accountNumber, BigDecimal amount) {
+        BigDecimal held = holds.getOrDefault(accountNumber, BigDecimal.ZERO);
+        BigDecimal balance = (BigDecimal) accounts.get(accountNumber).get("balance");
+        if (balance.subtract(held).compareTo(amount) < 0) {
+            return false;
+        }
+        holds.put(accountNumber, held.add(amount));
+        return true;
+    }
+
+    private void adjust(String accountNumber, BigDecimal delta) {
+        Map<String, Object> account = accounts.get(accountNumber);
+        account.put("balance", ((BigDecimal) account.get("balance")).add(delta));
+    }
+
+    private static BigDecimal balance(Random random) {
+        return BigDecimal.valueOf(MIN_BALANCE_MINOR + (long) (random.nextDouble() * (MAX_BALANCE_MINOR - MIN_BALANCE_MINOR)), 2);
+    }
+
+    private String account(String owner, boolean closed, BigDecimal balance) {
+        String number = "EE" + String.format("%018d", accounts.size());
+
+        Map<String, Object> account = new LinkedHashMap<>();
+        account.put("number", number);
+        account.put("owner", owner);
+        account.put("closed", closed);
+        account.put("balance", balance);
+        accounts.put(number, account);
+        return number;
+    }
+
+    private String pick(List<String> keys, ThreadLocalRandom random) {
+        int index = (int) (keys.size() * Math.pow(random.nextDouble(), settings.keySkew()));
+        return keys.get(Math.min(index, keys.size() - 1));
+    }
+
+    record StubTransaction(Map<String, Object> json, boolean fraudulent, boolean held, long createdAt, long deadlineAt) {
+
+        String id() {
+            return (String) json.get("id");
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package ee.digit25.detector.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the detector service: the transactions, accounts, persons and devices endpoints used by the
+ * Retrofit apis. Every response is delayed by {@code min + exponential(mean)} milliseconds, requests beyond the
+ * concurrency limit get 429 and no more transactions are handed out than the pending limit allows. Verifying a
+ * transaction moves its amount between the accounts, see {@link StubData}.
+ */
+class StubDetectorService {
+
+    private static final TypeReference<List<String>> STRINGS = new TypeReference<>() {
+    };
+
+    private final LoadTestSettings settings;
+    private final StubData data;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Semaphore concurrency;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledSweeper sweeper = new ScheduledSweeper();
+    private HttpServer server;
+
+    private final Map<String, StubData.StubTransaction> pending = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder decided = new LongAdder();
+    private final LongAdder correct = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LatencyHistogram decisionLatency = new LatencyHistogram();
+
+    StubDetectorService(LoadTestSettings settings) {
+        this.settings = settings;
+        this.data = new StubData(settings);
+        this.concurrency = new Semaphore(settings.maxConcurrentRequests());
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        sweeper.start();
+    }
+
+    void stop() {
+        sweeper.interrupt();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void reset() {
+        requests.clear();
+        throttled.reset();
+        decided.reset();
+        correct.reset();
+        missed.reset();
+        expired.reset();
+        decisionLatency.reset();
+    }
+
+    LoadTestReport report(double seconds) {
+        long totalRequests = requests.values().stream().mapToLong(LongAdder::sum).sum();
+        Map<String, Long> perEndpoint = new HashMap<>();
+        requests.forEach((endpoint, count) -> perEndpoint.put(endpoint, count.sum()));
+
+        return new LoadTestReport(
+                seconds,
+                decided.sum(),
+                correct.sum(),
+                missed.sum(),
+                expired.sum(),
+                decisionLatency.percentile(0.5),
+                decisionLatency.percentile(0.99),
+                totalRequests,
+                throttled.sum(),
+                perEndpoint
+        );
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!concurrency.tryAcquire()) {
+                throttled.increment();
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            try {
+                simulateLatency();
+                Object response = route(exchange.getRequestMethod(), exchange.getRequestURI(), exchange);
+                if (response == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+
+                byte[] body = mapper.writeValueAsBytes(response);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                concurrency.release();
+            }
+        }
+    }
+
+    private Object route(String method, URI uri, HttpExchange exchange) throws IOException {
+        String[] path = uri.getPath().substring(1).split("/");
+        Map<String, String> query = query(uri);
+        String resource = path[0];
+
+        if ("transactions".equals(resource)) {
+            return transactions(method, path, query, exchange);
+        }
+
+        Map<String, Map<String, Object>> entities = switch (resource) {
+            case "persons" -> data.persons;
+            case "devices" -> data.devices;
+            case "accounts" -> data.accounts;
+            default -> null;
+        };
+        if (entities == null) {
+            return null;
+        }
+
+        if ("POST".equals(method)) {
+            count(resource + ".bulk");
+            List<Object> found = new ArrayList<>();
+            for (String key : mapper.readValue(exchange.getRequestBody(), STRINGS)) {
+                Map<String, Object> entity = entities.get(key);
+                if (entity != null) {
+                    found.add(entity);
+                }
+            }
+            return found;
+        }
+
+        if (path.length == 2) {
+            count(resource + ".single");
+            return entities.get(path[1]);
+        }
+
+        count(resource + ".page");
+        int page = Integer.parseInt(query.getOrDefault("pageNumber", "0"));
+        int size = Integer.parseInt(query.getOrDefault("pageSize", "100"));
+        return entities.values().stream().skip((long) page * size).limit(size).toList();
+    }
+
+    private Object transactions(String method, String[] path, Map<String, String> query, HttpExchange exchange) throws IOException {
+        if ("GET".equals(method) && path.length == 2 && "unverified".equals(path[1])) {
+            count("transactions.unverified");
+            int amount = Integer.parseInt(query.getOrDefault("amount", "1"));
+            int available = Math.max(0, Math.min(amount, settings.maxPending() - pending.size()));
+
+            List<Object> batch = new ArrayList<>(available);
+            for (int i = 0; i < available; i++) {
+                StubData.StubTransaction transaction = data.next();
+                pending.put(transaction.id(), transaction);
+                batch.add(transaction.json());
+            }
+            return batch;
+        }
+
+        if ("POST".equals(method) && path.length == 2) {
+            count("transactions.bulk-verdict");
+            decide(mapper.readValue(exchange.getRequestBody(), STRINGS), "reject".equals(path[1]));
+            return List.of();
+        }
+
+        if ("POST".equals(method) && path.length == 3) {
+            count("transactions.verdict");
+            decide(List.of(path[1]), "reject".equals(path[2]));
+            return List.of();
+        }
+
+        return null;
+    }
+
+    private void decide(Collection<String> ids, boolean rejected) {
+        long now = System.nanoTime();
+
+        for (String id : ids) {
+            StubData.StubTransaction transaction = pending.remove(id);
+            if (transaction == null) {
+                continue;
+            }
+
+            data.decide(transaction, !rejected);
+            decided.increment();
+            decisionLatency.record(TimeUnit.NANOSECONDS.toMillis(now - transaction.createdAt()));
+            if (transaction.fraudulent() == rejected) {
+                correct.increment();
+            }
+            if (now > transaction.deadlineAt()) {
+                missed.increment();
+            }
+        }
+    }
+
+    private void simulateLatency() {
+        double exponential = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * settings.latencyMeanMs();
+        long millis = settings.latencyMinMs() + (long) exponential;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void count(String endpoint) {
+        requests.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        if (uri.getRawQuery() == null) {
+            return query;
+        }
+        for (String pair : uri.getRawQuery().split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Drops transactions that were never decided well past their deadline, freeing pending capacity the way the real
+     * service expires them.
+     */
+    private class ScheduledSweeper extends Thread {
+
+        private static final long GRACE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+        ScheduledSweeper() {
+            super("stub-sweeper");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                long now = System.nanoTime();
+                pending.forEach((id, transaction) -> {
+                    // Removed by id and value so a verdict arriving concurrently is not counted twice
+                    if (now - transaction.deadlineAt() > GRACE_NANOS && pending.remove(id, transaction)) {
+                        data.decide(transaction, false);
+                        expired.increment();
+                    }
+                });
+
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ee.digit25.detector.common;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -9,10 +11,19 @@ import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig {
 
+    private final ExecutionProperties properties;
+
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
+        if (properties.getMode() != ExecutionMode.PLATFORM) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AsyncThread-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
         executor.setMaxPoolSize(8);
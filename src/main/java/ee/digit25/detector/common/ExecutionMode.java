@@ -0,0 +1,42 @@
+package ee.digit25.detector.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public enum ExecutionMode {
+
+    /**
+     * Blocking calls on fixed pools of platform threads.
+     */
+    PLATFORM,
+
+    /**
+     * Blocking calls, every blocking task runs on its own virtual thread.
+     */
+    VIRTUAL,
+
+    /**
+     * Lookups and verdict submissions are composed from {@link java.util.concurrent.CompletableFuture} returning
+     * requester methods, no pipeline thread waits for a response.
+     */
+    ASYNC;
+
+    public ThreadFactory threadFactory(String prefix) {
+        if (this == PLATFORM) {
+            return Thread.ofPlatform().name(prefix, 0).daemon(true).factory();
+        }
+        return Thread.ofVirtual().name(prefix, 0).factory();
+    }
+
+    /**
+     * Executor for blocking tasks: a fixed pool of the given size on platform threads, unbounded otherwise. Concurrency
+     * of the remote calls those tasks make is bounded by the request governor, not by the executor.
+     */
+    public ExecutorService executor(String prefix, int platformThreads) {
+        if (this == PLATFORM) {
+            return Executors.newFixedThreadPool(platformThreads, threadFactory(prefix));
+        }
+        return Executors.newThreadPerTaskExecutor(threadFactory(prefix));
+    }
+}
@@ -0,0 +1,27 @@
+package ee.digit25.detector.common;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.execution")
+public class ExecutionProperties {
+
+    @NotNull
+    private ExecutionMode mode = ExecutionMode.VIRTUAL;
+
+    /**
+     * Validation batches being enriched at the same time in VIRTUAL and ASYNC modes. PLATFORM mode uses
+     * detector.pipeline.validation-workers threads instead.
+     */
+    @Min(1)
+    private int maxOutstandingBatches = 32;
+}
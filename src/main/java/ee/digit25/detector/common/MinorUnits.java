@@ -0,0 +1,24 @@
+package ee.digit25.detector.common;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversion of monetary amounts to whole cents. Balances are rounded down and amounts up, so comparing the two in
+ * minor units never approves a transfer the exact values would not.
+ */
+public final class MinorUnits {
+
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long floor(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    public static long ceil(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,54 @@
+package ee.digit25.detector.common.cache;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.cache")
+public class CacheProperties {
+
+    @Valid
+    private Spec persons = new Spec(50_000, Duration.ofMinutes(5));
+
+    @Valid
+    private Spec devices = new Spec(50_000, Duration.ofMinutes(5));
+
+    /**
+     * Balance and closed flag are volatile, so accounts live much shorter than persons and devices.
+     */
+    @Valid
+    private Spec accounts = new Spec(50_000, Duration.ofSeconds(1));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+
+        @Min(1)
+        private int maxSize;
+
+        /**
+         * Zero disables caching for the entity type while keeping in-flight request coalescing.
+         */
+        @NotNull
+        private Duration ttl;
+
+        public <K, V> EntityCache<K, V> create(String name) {
+            return new EntityCache<>(name, maxSize, ttl);
+        }
+    }
+}
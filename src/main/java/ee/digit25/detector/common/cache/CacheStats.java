@@ -0,0 +1,21 @@
+package ee.digit25.detector.common.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+
+    public double hitRatio() {
+        long requests = hits + misses + coalesced;
+        return requests == 0 ? 0 : (double) (hits + coalesced) / requests;
+    }
+}
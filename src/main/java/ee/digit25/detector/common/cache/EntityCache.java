@@ -0,0 +1,238 @@
+package ee.digit25.detector.common.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache with a per-cache TTL and LRU eviction.
+ * <p>
+ * Concurrent misses on the same key share a single in-flight load: the first caller registers a future and loads it,
+ * every other caller asking for that key while the load runs waits on the same future instead of loading it again.
+ * Keys the loader does not return are not cached, so absent entities are asked for again on the next lookup.
+ * <p>
+ * Invalidating a key also detaches a load of it that is still running: its result is handed to the callers already
+ * waiting for it but not cached, and later lookups start a new load.
+ */
+public class EntityCache<K, V> {
+
+    private final String name;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentHashMap<K, Load<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EntityCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+
+    EntityCache(String name, int maxSize, Duration ttl, LongSupplier clock) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        return getAll(List.of(key), keys -> {
+            V value = loader.apply(keys.get(0));
+            return value == null ? Map.of() : Map.of(keys.get(0), value);
+        }).get(key);
+    }
+
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        try {
+            return getAllAsync(keys, missing -> CompletableFuture.completedFuture(loader.apply(missing))).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Map<K, V>> getAllAsync(Collection<K> keys, Function<List<K>, CompletableFuture<Map<K, V>>> loader) {
+        Map<K, V> found = new HashMap<>(keys.size() * 2);
+        Map<K, CompletableFuture<V>> pending = new HashMap<>();
+        Map<K, Load<V>> owned = new LinkedHashMap<>();
+
+        for (K key : keys) {
+            if (key == null || found.containsKey(key) || pending.containsKey(key)) {
+                continue;
+            }
+
+            V cached = peek(key);
+            if (cached != null) {
+                hits.increment();
+                found.put(key, cached);
+                continue;
+            }
+
+            Load<V> load = new Load<>();
+            Load<V> existing = inFlight.putIfAbsent(key, load);
+            if (existing != null) {
+                coalesced.increment();
+                pending.put(key, existing.future);
+                continue;
+            }
+
+            // Another load may have finished between the lookup and registering ours
+            cached = peek(key);
+            if (cached != null) {
+                inFlight.remove(key, load);
+                load.future.complete(cached);
+                hits.increment();
+                found.put(key, cached);
+                continue;
+            }
+
+            misses.increment();
+            owned.put(key, load);
+            pending.put(key, load.future);
+        }
+
+        if (!owned.isEmpty()) {
+            load(owned, loader);
+        }
+
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    pending.forEach((key, future) -> {
+                        V value = future.join();
+                        if (value != null) {
+                            found.put(key, value);
+                        }
+                    });
+                    return found;
+                });
+    }
+
+    public void put(K key, V value) {
+        if (ttlNanos <= 0 || value == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            detach(key);
+        }
+    }
+
+    public void invalidateAll(Collection<K> keys) {
+        synchronized (entries) {
+            keys.forEach(this::detach);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, size(), hits.sum(), misses.sum(), coalesced.sum(), evictions.sum());
+    }
+
+    private V peek(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt - clock.getAsLong() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Removes the cached value and marks a running load as stale, so its result is not cached. Caller holds the lock
+     * on {@link #entries}, the same lock {@link #complete} checks the mark under.
+     */
+    private void detach(K key) {
+        entries.remove(key);
+        Load<V> load = inFlight.remove(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    private void load(Map<K, Load<V>> owned, Function<List<K>, CompletableFuture<Map<K, V>>> loader) {
+        CompletableFuture<Map<K, V>> loading;
+        try {
+            loading = loader.apply(new ArrayList<>(owned.keySet()));
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+
+        loading.whenComplete((loaded, error) -> owned.forEach((key, load) -> {
+            if (error != null) {
+                inFlight.remove(key, load);
+                load.future.completeExceptionally(error);
+                return;
+            }
+
+            V value = loaded.get(key);
+            complete(key, load, value);
+            load.future.complete(value);
+        }));
+    }
+
+    private void complete(K key, Load<V> load, V value) {
+        synchronized (entries) {
+            if (!load.stale) {
+                put(key, value);
+            }
+            inFlight.remove(key, load);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Load<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private boolean stale;
+    }
+}
@@ -0,0 +1,57 @@
+package ee.digit25.detector.common.governor;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Additive increase / multiplicative decrease of a concurrency limit.
+ * <p>
+ * Every successful call that kept latency under the threshold while the limit was actually in use grows the limit
+ * by {@code 1 / limit}, i.e. by one per limit-sized window of calls. Errors, throttling and slow calls shrink it by
+ * the backoff ratio, at most once per cooldown so one burst of failures does not collapse the limit to its minimum.
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long cooldownNanos;
+    private final LongSupplier clock;
+
+    private double limit;
+    private long lastDecrease;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos, long cooldownNanos) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdNanos, cooldownNanos, System::nanoTime);
+    }
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos, long cooldownNanos, LongSupplier clock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.cooldownNanos = cooldownNanos;
+        this.clock = clock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecrease = clock.getAsLong() - cooldownNanos;
+    }
+
+    public synchronized int onSample(long latencyNanos, boolean failed, int inUse) {
+        long now = clock.getAsLong();
+
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            if (now - lastDecrease >= cooldownNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecrease = now;
+            }
+        } else if (inUse * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+
+        return (int) limit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,56 @@
+package ee.digit25.detector.common.governor;
+
+import retrofit2.Call;
+import retrofit2.Invocation;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names calls after the http method and path template of their api method, e.g. {@code GET:/persons/{id}}, so
+ * lookups of single entities share one name instead of one per id.
+ */
+final class ApiEndpoints {
+
+    private static final String UNKNOWN = "unknown";
+    private static final Map<Method, String> NAMES = new ConcurrentHashMap<>();
+
+    private ApiEndpoints() {
+    }
+
+    static String name(Call<?> call) {
+        Invocation invocation = call.request().tag(Invocation.class);
+        if (invocation == null) {
+            return UNKNOWN;
+        }
+        return NAMES.computeIfAbsent(invocation.method(), ApiEndpoints::name);
+    }
+
+    private static String name(Method method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof GET get) {
+                return "GET:" + get.value();
+            }
+            if (annotation instanceof POST post) {
+                return "POST:" + post.value();
+            }
+            if (annotation instanceof PUT put) {
+                return "PUT:" + put.value();
+            }
+            if (annotation instanceof PATCH patch) {
+                return "PATCH:" + patch.value();
+            }
+            if (annotation instanceof DELETE delete) {
+                return "DELETE:" + delete.value();
+            }
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
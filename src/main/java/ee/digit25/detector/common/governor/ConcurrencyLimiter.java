@@ -0,0 +1,211 @@
+package ee.digit25.detector.common.governor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Permit based limiter with priority classes and an adjustable limit.
+ * <p>
+ * Waiters are futures, so a permit can be awaited either blocking ({@link #acquire}) or asynchronously
+ * ({@link #acquireAsync}). Within a priority class permits are granted in arrival order.
+ * <p>
+ * Up to {@code backgroundReserved} permits are granted to {@link RequestPriority#BACKGROUND} calls ahead of every
+ * other class, so background work keeps a minimum share of the limit and is never starved by a steady backlog.
+ */
+public class ConcurrencyLimiter {
+
+    private final ArrayDeque<Waiter>[] waiters;
+    private final int backgroundReserved;
+    private int limit;
+    private int inUse;
+    private int backgroundInUse;
+    private int waiting;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConcurrencyLimiter(int limit) {
+        this(limit, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrencyLimiter(int limit, int backgroundReserved) {
+        this.limit = limit;
+        this.backgroundReserved = backgroundReserved;
+        this.waiters = new ArrayDeque[RequestPriority.values().length];
+        for (int i = 0; i < waiters.length; i++) {
+            waiters[i] = new ArrayDeque<>();
+        }
+    }
+
+    public CompletableFuture<Permit> acquireAsync(RequestPriority priority) {
+        long now = System.nanoTime();
+        Waiter waiter;
+
+        synchronized (this) {
+            if (inUse < limit && (!hasWaiters(priority) || isReserved(priority))) {
+                take(priority);
+                return CompletableFuture.completedFuture(grant(priority, now, now));
+            }
+
+            waiter = new Waiter(priority, now, new CompletableFuture<>());
+            waiters[priority.ordinal()].add(waiter);
+            waiting++;
+        }
+
+        return waiter.future;
+    }
+
+    public Permit acquire(RequestPriority priority) throws InterruptedException {
+        CompletableFuture<Permit> future = acquireAsync(priority);
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            if (!future.cancel(false)) {
+                // Granted concurrently with the interrupt, give it back
+                release(future.join());
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void release(Permit permit) {
+        List<Waiter> admitted;
+
+        synchronized (this) {
+            inUse--;
+            if (permit.priority() == RequestPriority.BACKGROUND) {
+                backgroundInUse--;
+            }
+            admitted = admit();
+        }
+
+        complete(admitted);
+    }
+
+    public void setLimit(int limit) {
+        List<Waiter> admitted;
+
+        synchronized (this) {
+            if (this.limit == limit) {
+                return;
+            }
+            this.limit = limit;
+            admitted = admit();
+        }
+
+        complete(admitted);
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInUse() {
+        return inUse;
+    }
+
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+    public long getGranted() {
+        return granted.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    /**
+     * Returns the longest wait since the previous {@link #resetMaxWaitNanos()}.
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public void resetMaxWaitNanos() {
+        maxWaitNanos.set(0);
+    }
+
+    private boolean hasWaiters(RequestPriority priority) {
+        for (int i = 0; i <= priority.ordinal(); i++) {
+            if (!waiters[i].isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isReserved(RequestPriority priority) {
+        return priority == RequestPriority.BACKGROUND && backgroundInUse < backgroundReserved;
+    }
+
+    private List<Waiter> admit() {
+        List<Waiter> admitted = new ArrayList<>();
+
+        ArrayDeque<Waiter> background = waiters[RequestPriority.BACKGROUND.ordinal()];
+        while (inUse < limit && isReserved(RequestPriority.BACKGROUND) && !background.isEmpty()) {
+            admit(background.poll(), admitted);
+        }
+
+        for (int i = 0; i < waiters.length && inUse < limit; i++) {
+            ArrayDeque<Waiter> queue = waiters[i];
+            while (inUse < limit && !queue.isEmpty()) {
+                admit(queue.poll(), admitted);
+            }
+        }
+
+        return admitted;
+    }
+
+    private void admit(Waiter waiter, List<Waiter> admitted) {
+        waiting--;
+        if (!waiter.future.isDone()) {
+            take(waiter.priority);
+            admitted.add(waiter);
+        }
+    }
+
+    private void take(RequestPriority priority) {
+        inUse++;
+        if (priority == RequestPriority.BACKGROUND) {
+            backgroundInUse++;
+        }
+    }
+
+    private void complete(List<Waiter> admitted) {
+        long now = System.nanoTime();
+
+        // Completed outside the lock, dependent stages may run on this thread
+        for (Waiter waiter : admitted) {
+            Permit permit = grant(waiter.priority, waiter.enqueuedAt, now);
+            if (!waiter.future.complete(permit)) {
+                release(permit);
+            }
+        }
+    }
+
+    private Permit grant(RequestPriority priority, long enqueuedAt, long now) {
+        long waited = now - enqueuedAt;
+        granted.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return new Permit(priority, waited);
+    }
+
+    public record Permit(RequestPriority priority, long waitNanos) {
+    }
+
+    private record Waiter(RequestPriority priority, long enqueuedAt, CompletableFuture<Permit> future) {
+    }
+}
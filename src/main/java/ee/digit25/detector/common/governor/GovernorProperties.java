@@ -0,0 +1,65 @@
+package ee.digit25.detector.common.governor;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.governor")
+public class GovernorProperties {
+
+    @NotNull
+    private Mode mode = Mode.AIMD;
+
+    /**
+     * The service allows 50 concurrent requests per token, shared by every api.
+     */
+    @Min(1)
+    @Max(50)
+    private int maxLimit = 50;
+
+    @Min(1)
+    private int minLimit = 5;
+
+    /**
+     * Starting limit in AIMD mode, ignored in FIXED mode which always uses {@link #maxLimit}.
+     */
+    @Min(1)
+    private int initialLimit = 30;
+
+    @DecimalMin("0.1")
+    @DecimalMax("0.99")
+    private double backoffRatio = 0.9;
+
+    /**
+     * Fetch and lookup calls slower than this count as congestion in AIMD mode, see {@link RequestGovernor}.
+     */
+    @NotNull
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    @NotNull
+    private Duration decreaseCooldown = Duration.ofMillis(100);
+
+    /**
+     * Permits background calls get ahead of transaction work, so preloading progresses under a constant backlog.
+     */
+    @Min(0)
+    private int backgroundReserved = 1;
+
+    public enum Mode {
+        FIXED,
+        AIMD
+    }
+}
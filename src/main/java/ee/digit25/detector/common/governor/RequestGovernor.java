@@ -0,0 +1,134 @@
+package ee.digit25.detector.common.governor;
+
+import ee.bitweb.core.retrofit.RetrofitException;
+import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.metrics.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import retrofit2.Call;
+import retrofit2.HttpException;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single gate for every remote call. All apis share one token and with it the service's limit of 50 concurrent
+ * requests, so every requester executes its calls through here instead of calling {@link RetrofitRequestExecutor}
+ * directly.
+ * <p>
+ * Latency, error and throttle counts are recorded per endpoint as {@code api.<METHOD>:<path>} metrics.
+ * <p>
+ * In AIMD mode the limit follows the latency of fetch and lookup calls only. Bulk verdict submissions and preload
+ * pages are slow because of their size rather than congestion, only their failures adjust the limit.
+ */
+@Slf4j
+@Component
+public class RequestGovernor {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final Set<RequestPriority> LATENCY_SAMPLED = EnumSet.of(RequestPriority.FETCH, RequestPriority.ENRICHMENT);
+
+    private final ConcurrencyLimiter limiter;
+    private final AimdLimit aimd;
+
+    private final ExecutorService callExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("remote-call-", 0).factory());
+
+    private final Metrics metrics;
+
+    public RequestGovernor(GovernorProperties properties, Metrics metrics) {
+        this.metrics = metrics;
+        if (properties.getMode() == GovernorProperties.Mode.AIMD) {
+            this.aimd = new AimdLimit(
+                    properties.getInitialLimit(),
+                    properties.getMinLimit(),
+                    properties.getMaxLimit(),
+                    properties.getBackoffRatio(),
+                    properties.getLatencyThreshold().toNanos(),
+                    properties.getDecreaseCooldown().toNanos()
+            );
+            this.limiter = new ConcurrencyLimiter(aimd.getLimit(), properties.getBackgroundReserved());
+        } else {
+            this.aimd = null;
+            this.limiter = new ConcurrencyLimiter(properties.getMaxLimit(), properties.getBackgroundReserved());
+        }
+
+        metrics.gauge("governor.limit", limiter::getLimit);
+        metrics.gauge("governor.inUse", limiter::getInUse);
+        metrics.gauge("governor.waiting", limiter::getWaiting);
+        metrics.gauge("governor.avgWaitMs", () -> {
+            long granted = limiter.getGranted();
+            return granted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(limiter.getTotalWaitNanos() / granted);
+        });
+        metrics.gauge("governor.maxWaitMs", () -> TimeUnit.NANOSECONDS.toMillis(limiter.getMaxWaitNanos()));
+        metrics.onInterval(limiter::resetMaxWaitNanos);
+    }
+
+    public <T> T execute(RequestPriority priority, Call<T> call) {
+        ConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request permit", e);
+        }
+
+        return execute(permit, call);
+    }
+
+    /**
+     * Waits for a permit without blocking the caller. Once granted the call runs on a virtual thread of its own rather
+     * than through {@link Call#enqueue}, so it keeps the error handling of {@link RetrofitRequestExecutor} and is not
+     * capped by the per host limit of the OkHttp dispatcher.
+     */
+    public <T> CompletableFuture<T> executeAsync(RequestPriority priority, Call<T> call) {
+        return limiter.acquireAsync(priority).thenApplyAsync(permit -> execute(permit, call), callExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdown();
+    }
+
+    private <T> T execute(ConcurrencyLimiter.Permit permit, Call<T> call) {
+        String endpoint = "api." + ApiEndpoints.name(call);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = RetrofitRequestExecutor.executeRaw(call);
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            metrics.counter(endpoint + (isThrottled(e) ? ".throttled" : ".errors")).increment();
+            throw e;
+        } finally {
+            long latency = System.nanoTime() - start;
+            metrics.timer(endpoint).record(latency);
+            onComplete(permit, latency, failed);
+        }
+    }
+
+    private void onComplete(ConcurrencyLimiter.Permit permit, long latencyNanos, boolean failed) {
+        if (aimd != null && (failed || LATENCY_SAMPLED.contains(permit.priority()))) {
+            limiter.setLimit(aimd.onSample(latencyNanos, failed, limiter.getInUse()));
+        }
+        limiter.release(permit);
+    }
+
+    private static boolean isThrottled(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetrofitException retrofit && Integer.valueOf(TOO_MANY_REQUESTS).equals(retrofit.getCode())) {
+                return true;
+            }
+            if (cause instanceof HttpException http && http.code() == TOO_MANY_REQUESTS) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
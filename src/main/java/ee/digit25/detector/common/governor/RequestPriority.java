@@ -0,0 +1,29 @@
+package ee.digit25.detector.common.governor;
+
+/**
+ * Priority classes of remote calls, highest first. A waiting call is only admitted once no call of a higher
+ * priority is waiting, apart from the reserved share of {@link #BACKGROUND}.
+ */
+public enum RequestPriority {
+
+    /**
+     * Verify / reject submissions. Every verdict releases pending capacity, so these never wait behind lookups.
+     */
+    VERDICT,
+
+    /**
+     * Fetching unverified transactions.
+     */
+    FETCH,
+
+    /**
+     * Person, device and account lookups needed to validate transactions.
+     */
+    ENRICHMENT,
+
+    /**
+     * Work nothing is waiting for, such as preloading reference data. Keeps a small reserved share of the limit,
+     * see {@link ConcurrencyLimiter}.
+     */
+    BACKGROUND
+}
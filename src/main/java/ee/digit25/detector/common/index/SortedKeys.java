@@ -0,0 +1,56 @@
+package ee.digit25.detector.common.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable sorted set of string keys. The position of a key is its dense int id, so values can be kept in plain
+ * parallel arrays instead of a map of boxed objects.
+ */
+public final class SortedKeys {
+
+    public static final SortedKeys EMPTY = new SortedKeys(new String[0]);
+
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final String[] keys;
+
+    private SortedKeys(String[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Expects the keys in ascending order without duplicates, as iterated from a {@link java.util.TreeMap}.
+     */
+    public static SortedKeys ofSorted(Collection<String> keys) {
+        return new SortedKeys(keys.toArray(new String[0]));
+    }
+
+    public int indexOf(String key) {
+        if (key == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? -1 : index;
+    }
+
+    public String get(int index) {
+        return keys[index];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Rough heap footprint assuming compressed references and Latin-1 compact strings.
+     */
+    public long estimatedBytes() {
+        long bytes = 16 + (long) keys.length * REFERENCE_BYTES;
+        for (String key : keys) {
+            bytes += STRING_OVERHEAD_BYTES + key.length();
+        }
+        return bytes;
+    }
+}
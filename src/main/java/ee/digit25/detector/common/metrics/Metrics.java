@@ -0,0 +1,69 @@
+package ee.digit25.detector.common.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal in-process metrics registry: cumulative counters, timers and gauges read on report.
+ * Lookups are map reads, hot paths that record often should keep the returned instance.
+ */
+@Component
+public class Metrics {
+
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counterCache = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timerCache = new ConcurrentHashMap<>();
+    private final List<Runnable> intervalHooks = new CopyOnWriteArrayList<>();
+
+    public LongAdder counter(String name) {
+        LongAdder counter = counterCache.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        return counterCache.computeIfAbsent(name, key -> counters.computeIfAbsent(key, ignored -> new LongAdder()));
+    }
+
+    public Timer timer(String name) {
+        Timer timer = timerCache.get(name);
+        if (timer != null) {
+            return timer;
+        }
+        return timerCache.computeIfAbsent(name, key -> timers.computeIfAbsent(key, ignored -> new Timer()));
+    }
+
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Runs the hook after every report, for gauges that cover a single report interval.
+     */
+    public void onInterval(Runnable hook) {
+        intervalHooks.add(hook);
+    }
+
+    Map<String, LongAdder> counters() {
+        return counters;
+    }
+
+    Map<String, Timer> timers() {
+        return timers;
+    }
+
+    Map<String, LongSupplier> gauges() {
+        return gauges;
+    }
+
+    List<Runnable> intervalHooks() {
+        return intervalHooks;
+    }
+}
@@ -0,0 +1,60 @@
+package ee.digit25.detector.common.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Logs every metric on a single line per interval: gauges as their current value, counters as total and rate per
+ * second over the interval, timers as interval count and p50 / p99 / max.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricsReporter {
+
+    private final Metrics metrics;
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private long previousReport = System.nanoTime();
+
+    @Scheduled(fixedDelayString = "${detector.metrics.report-interval:PT10S}", initialDelayString = "${detector.metrics.report-interval:PT10S}")
+    public synchronized void report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - previousReport) / 1e9);
+        previousReport = now;
+
+        StringBuilder line = new StringBuilder(1024);
+
+        metrics.gauges().forEach((name, value) -> line.append(name).append('=').append(value.getAsLong()).append(' '));
+
+        metrics.counters().forEach((name, counter) -> {
+            long total = counter.sum();
+            long delta = total - previousCounts.getOrDefault(name, 0L);
+            previousCounts.put(name, total);
+            line.append(name).append('=').append(total)
+                    .append(String.format("(%.1f/s) ", delta / seconds));
+        });
+
+        metrics.timers().forEach((name, timer) -> {
+            Timer.Snapshot snapshot = timer.snapshot();
+            if (snapshot.count() > 0) {
+                line.append(name).append("[n=").append(snapshot.count())
+                        .append(" p50=").append(millis(snapshot.p50()))
+                        .append(" p99=").append(millis(snapshot.p99()))
+                        .append(" max=").append(millis(snapshot.max()))
+                        .append("] ");
+            }
+        });
+
+        log.info("Metrics {}", line.toString().trim());
+        metrics.intervalHooks().forEach(Runnable::run);
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1fms", micros / 1000.0);
+    }
+}
@@ -0,0 +1,93 @@
+package ee.digit25.detector.domain.account;
+
+import ee.digit25.detector.common.index.SortedKeys;
+import ee.digit25.detector.domain.account.external.api.Account;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Preloaded accounts reduced to an owner id and a closed bit. Owner person codes are interned into a table of their
+ * own so every account of an owner shares one string. Replaced as a whole on every refresh. Balances are left out,
+ * they change with every verified transaction and are tracked by the {@link AccountLedger} instead.
+ */
+@Component
+public class AccountIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(SortedKeys.EMPTY, new String[0], new int[0], new BitSet());
+
+    /**
+     * Returns null when the account is not indexed.
+     */
+    public Boolean isOpenAndOwnedBy(String accountNumber, String ownerPersonCode) {
+        Snapshot current = snapshot;
+        int id = current.numbers.indexOf(accountNumber);
+        if (id < 0) {
+            return null;
+        }
+        return !current.closed.get(id) && current.owners[current.ownerIds[id]].equals(ownerPersonCode);
+    }
+
+    public boolean contains(String accountNumber) {
+        return snapshot.numbers.indexOf(accountNumber) >= 0;
+    }
+
+    public int size() {
+        return snapshot.numbers.size();
+    }
+
+    public long estimatedBytes() {
+        Snapshot current = snapshot;
+        long owners = 16 + current.owners.length * 4L;
+        for (String owner : current.owners) {
+            owners += 40 + owner.length();
+        }
+        return current.numbers.estimatedBytes()
+                + owners
+                + 16 + current.ownerIds.length * 4L
+                + 32 + current.closed.size() / 8;
+    }
+
+    public Builder builder() {
+        return new Builder();
+    }
+
+    public class Builder {
+
+        private final TreeMap<String, Account> accounts = new TreeMap<>();
+
+        public void add(Account account) {
+            if (account.getNumber() != null && account.getOwner() != null) {
+                accounts.put(account.getNumber(), account);
+            }
+        }
+
+        public void publish() {
+            int size = accounts.size();
+            Map<String, Integer> ownerIdsByCode = new HashMap<>();
+            List<String> owners = new ArrayList<>();
+            int[] ownerIds = new int[size];
+            BitSet closed = new BitSet(size);
+
+            int i = 0;
+            for (Account account : accounts.values()) {
+                ownerIds[i] = ownerIdsByCode.computeIfAbsent(account.getOwner(), owner -> {
+                    owners.add(owner);
+                    return owners.size() - 1;
+                });
+                closed.set(i, Boolean.TRUE.equals(account.getClosed()));
+                i++;
+            }
+
+            snapshot = new Snapshot(SortedKeys.ofSorted(accounts.keySet()), owners.toArray(new String[0]), ownerIds, closed);
+        }
+    }
+
+    private record Snapshot(SortedKeys numbers, String[] owners, int[] ownerIds, BitSet closed) {
+    }
+}
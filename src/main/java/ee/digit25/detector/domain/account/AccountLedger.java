@@ -0,0 +1,150 @@
+package ee.digit25.detector.domain.account;
+
+import ee.digit25.detector.common.MinorUnits;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local view of sender account balances, in minor units.
+ * <p>
+ * A balance starts from a fetched account and every transaction we decide to verify reserves its amount, so
+ * transactions validated concurrently or in the same batch can not overdraw an account between two fetches.
+ * A reservation stays pending until its verdict is submitted: a submitted one is settled and assumed to be reflected
+ * in balances fetched after it, a failed submission gives the amount back. Settlements are remembered for a while, a
+ * balance whose request was sent before some of them is reduced by those as it might not include them yet.
+ * <p>
+ * Each account is updated under its own lock, validations of different accounts never contend.
+ */
+@Component
+public class AccountLedger {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long reconcileIntervalNanos;
+    private final long minMarginMinor;
+    private final long retentionNanos;
+
+    public AccountLedger(LedgerProperties properties) {
+        this.reconcileIntervalNanos = properties.getReconcileInterval().toNanos();
+        this.minMarginMinor = MinorUnits.floor(properties.getMinMargin());
+        this.retentionNanos = properties.getSettlementRetention().toNanos();
+    }
+
+    public boolean needsReconcile(String accountNumber) {
+        Entry entry = entries.get(accountNumber);
+        if (entry == null) {
+            return true;
+        }
+
+        synchronized (entry) {
+            return entry.available < minMarginMinor || System.nanoTime() - entry.reconciledAt > reconcileIntervalNanos;
+        }
+    }
+
+    /**
+     * Resets the available balance from a balance observed at {@code observedAt} ({@link System#nanoTime()}), less
+     * the amounts settled since as the observed balance might not include them yet. Ignored when observed longer
+     * than {@link LedgerProperties#getSettlementRetention()} ago.
+     */
+    public void reconcile(String accountNumber, long balanceMinor, long observedAt) {
+        Entry entry = entries.computeIfAbsent(accountNumber, number -> new Entry());
+
+        synchronized (entry) {
+            long now = System.nanoTime();
+            if (now - observedAt > retentionNanos) {
+                return;
+            }
+            entry.prune(now - retentionNanos);
+            entry.available = balanceMinor - entry.pending - entry.settledSince(observedAt);
+            entry.reconciledAt = now;
+        }
+    }
+
+    public boolean tryReserve(String accountNumber, long amountMinor) {
+        Entry entry = entries.get(accountNumber);
+        if (entry == null || amountMinor <= 0) {
+            return false;
+        }
+
+        synchronized (entry) {
+            if (entry.available < amountMinor) {
+                return false;
+            }
+            entry.available -= amountMinor;
+            entry.pending += amountMinor;
+            return true;
+        }
+    }
+
+    public void settle(String accountNumber, long amountMinor) {
+        Entry entry = entries.get(accountNumber);
+        if (entry == null) {
+            return;
+        }
+
+        synchronized (entry) {
+            long now = System.nanoTime();
+            entry.pending -= amountMinor;
+            entry.prune(now - retentionNanos);
+            entry.settlements.add(new Settlement(now, amountMinor));
+        }
+    }
+
+    public void cancel(String accountNumber, long amountMinor) {
+        Entry entry = entries.get(accountNumber);
+        if (entry == null) {
+            return;
+        }
+
+        synchronized (entry) {
+            entry.pending -= amountMinor;
+            entry.available += amountMinor;
+        }
+    }
+
+    public long available(String accountNumber) {
+        Entry entry = entries.get(accountNumber);
+        if (entry == null) {
+            return Long.MIN_VALUE;
+        }
+
+        synchronized (entry) {
+            return entry.available;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+
+        private final ArrayDeque<Settlement> settlements = new ArrayDeque<>();
+        private long available;
+        private long pending;
+        private long reconciledAt;
+
+        private long settledSince(long observedAt) {
+            long amount = 0;
+            for (Settlement settlement : settlements) {
+                if (settlement.at - observedAt > 0) {
+                    amount += settlement.amountMinor;
+                }
+            }
+            return amount;
+        }
+
+        /**
+         * Drops settlements made before {@code before}, they are added in time order.
+         */
+        private void prune(long before) {
+            while (!settlements.isEmpty() && settlements.peekFirst().at - before < 0) {
+                settlements.pollFirst();
+            }
+        }
+    }
+
+    private record Settlement(long at, long amountMinor) {
+    }
+}
@@ -1,35 +1,48 @@
 package ee.digit25.detector.domain.account;
 
-import ee.digit25.detector.domain.account.external.AccountRequester;
+import ee.digit25.detector.common.MinorUnits;
 import ee.digit25.detector.domain.account.external.api.Account;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountValidator {
 
-    private final AccountRequester requester;
+    private final AccountIndex index;
+    private final AccountLedger ledger;
 
-    public boolean isValidSenderAccount(String accountNumber, BigDecimal amount, String senderPersonCode) {
-        log.info("Checking if account {} is valid sender account", accountNumber);
-        
-        Account account = requester.get(accountNumber);
-        
-        return !account.getClosed() 
-            && senderPersonCode.equals(account.getOwner()) 
-            && account.getBalance().compareTo(amount) >= 0;
+    /**
+     * Checks owner and closed flag like {@link #isValidRecipientAccount} and the balance against the
+     * {@link AccountLedger}. A valid account gets the amount reserved, so this has to be the last check of a
+     * transaction that is otherwise legitimate.
+     */
+    public boolean reserveSenderAccount(String accountNumber, Account resolved, BigDecimal amount, String senderPersonCode) {
+        return isOpenAndOwnedBy(accountNumber, resolved, senderPersonCode)
+            && amount != null
+            && ledger.tryReserve(accountNumber, MinorUnits.ceil(amount));
     }
 
-    public boolean isValidRecipientAccount(String accountNumber, String recipientPersonCode) {
-        log.info("Checking if account {} is valid recipient account", accountNumber);
-        
-        Account account = requester.get(accountNumber);
-        
-        return !account.getClosed() && recipientPersonCode.equals(account.getOwner());
+    public boolean isValidRecipientAccount(String accountNumber, Account resolved, String recipientPersonCode) {
+        return isOpenAndOwnedBy(accountNumber, resolved, recipientPersonCode);
+    }
+
+    public boolean isOpenAndOwnedBy(Account account, String ownerPersonCode) {
+        return account != null
+            && !Boolean.TRUE.equals(account.getClosed())
+            && ownerPersonCode != null
+            && ownerPersonCode.equals(account.getOwner());
+    }
+
+    /**
+     * Decides from the resolved account, which is fresher than the preloaded index, and from the index only when the
+     * account was not resolved.
+     */
+    private boolean isOpenAndOwnedBy(String accountNumber, Account resolved, String ownerPersonCode) {
+        return resolved != null
+            ? isOpenAndOwnedBy(resolved, ownerPersonCode)
+            : Boolean.TRUE.equals(index.isOpenAndOwnedBy(accountNumber, ownerPersonCode));
     }
 }
@@ -0,0 +1,39 @@
+package ee.digit25.detector.domain.account;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.ledger")
+public class LedgerProperties {
+
+    /**
+     * Ledger balances older than this are reconciled against a freshly fetched account.
+     */
+    @NotNull
+    private Duration reconcileInterval = Duration.ofSeconds(10);
+
+    /**
+     * Ledger balances below this are reconciled on every use, so a balance topped up remotely is noticed before
+     * transfers from the account start getting rejected.
+     */
+    @NotNull
+    private BigDecimal minMargin = new BigDecimal("100.00");
+
+    /**
+     * Settlements are remembered this long to correct balances fetched while they landed. A fetched balance observed
+     * before that is too old to correct and is ignored.
+     */
+    @NotNull
+    private Duration settlementRetention = Duration.ofSeconds(30);
+}
@@ -1,6 +1,7 @@
 package ee.digit25.detector.domain.account.external;
 
-import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.governor.RequestGovernor;
+import ee.digit25.detector.common.governor.RequestPriority;
 import ee.digit25.detector.domain.account.external.api.Account;
 import ee.digit25.detector.domain.account.external.api.AccountApi;
 import ee.digit25.detector.domain.account.external.api.AccountApiProperties;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -17,22 +19,29 @@ public class AccountRequester {
 
     private final AccountApi api;
     private final AccountApiProperties properties;
+    private final RequestGovernor governor;
 
     public Account get(String accountNumber) {
-        log.info("Requesting account {}", accountNumber);
+        log.debug("Requesting account {}", accountNumber);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), accountNumber));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), accountNumber));
     }
 
     public List<Account> get(List<String> numbers) {
-        log.info("Requesting accounts with numbers {}", numbers);
+        log.debug("Requesting accounts with numbers {}", numbers);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), numbers));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), numbers));
+    }
+
+    public CompletableFuture<List<Account>> getAsync(List<String> numbers) {
+        log.debug("Requesting accounts with numbers {}", numbers);
+
+        return governor.executeAsync(RequestPriority.ENRICHMENT, api.get(properties.getToken(), numbers));
     }
 
     public List<Account> get(int pageNumber, int pageSize) {
-        log.info("Requesting accounts page {} of size {}", pageNumber, pageSize);
+        log.debug("Requesting accounts page {} of size {}", pageNumber, pageSize);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), pageNumber, pageSize));
+        return governor.execute(RequestPriority.BACKGROUND, api.get(properties.getToken(), pageNumber, pageSize));
     }
 }
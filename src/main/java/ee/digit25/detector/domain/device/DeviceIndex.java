@@ -0,0 +1,69 @@
+package ee.digit25.detector.domain.device;
+
+import ee.digit25.detector.common.index.SortedKeys;
+import ee.digit25.detector.domain.device.external.api.Device;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.TreeMap;
+
+/**
+ * Preloaded devices reduced to a blacklisted bit per mac. Replaced as a whole on every refresh.
+ */
+@Component
+public class DeviceIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(SortedKeys.EMPTY, new BitSet());
+
+    /**
+     * Returns null when the device is not indexed.
+     */
+    public Boolean isValid(String mac) {
+        Snapshot current = snapshot;
+        int id = current.macs.indexOf(mac);
+        if (id < 0) {
+            return null;
+        }
+        return !current.blacklisted.get(id);
+    }
+
+    public boolean contains(String mac) {
+        return snapshot.macs.indexOf(mac) >= 0;
+    }
+
+    public int size() {
+        return snapshot.macs.size();
+    }
+
+    public long estimatedBytes() {
+        Snapshot current = snapshot;
+        return current.macs.estimatedBytes() + 32 + current.blacklisted.size() / 8;
+    }
+
+    public Builder builder() {
+        return new Builder();
+    }
+
+    public class Builder {
+
+        private final TreeMap<String, Boolean> blacklisted = new TreeMap<>();
+
+        public void add(Device device) {
+            if (device.getMac() != null) {
+                blacklisted.put(device.getMac(), Boolean.TRUE.equals(device.getIsBlacklisted()));
+            }
+        }
+
+        public void publish() {
+            BitSet bits = new BitSet(blacklisted.size());
+            int i = 0;
+            for (boolean value : blacklisted.values()) {
+                bits.set(i++, value);
+            }
+            snapshot = new Snapshot(SortedKeys.ofSorted(blacklisted.keySet()), bits);
+        }
+    }
+
+    private record Snapshot(SortedKeys macs, BitSet blacklisted) {
+    }
+}
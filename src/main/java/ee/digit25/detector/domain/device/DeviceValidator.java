@@ -1,23 +1,24 @@
 package ee.digit25.detector.domain.device;
 
-import ee.digit25.detector.domain.device.external.DeviceRequester;
 import ee.digit25.detector.domain.device.external.api.Device;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DeviceValidator {
 
-    private final DeviceRequester requester;
+    private final DeviceIndex index;
 
-    public boolean isValid(String mac) {
-        log.info("Validating device {}", mac);
-        
-        Device device = requester.get(mac);
-        
-        return !device.getIsBlacklisted();
+    /**
+     * Decides from the preloaded index when the device is indexed, from the resolved device otherwise.
+     */
+    public boolean isValid(String mac, Device resolved) {
+        Boolean indexed = index.isValid(mac);
+        return indexed != null ? indexed : isValid(resolved);
+    }
+
+    public boolean isValid(Device device) {
+        return device != null && !Boolean.TRUE.equals(device.getIsBlacklisted());
     }
 }
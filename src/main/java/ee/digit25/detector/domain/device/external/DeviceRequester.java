@@ -1,6 +1,7 @@
 package ee.digit25.detector.domain.device.external;
 
-import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.governor.RequestGovernor;
+import ee.digit25.detector.common.governor.RequestPriority;
 import ee.digit25.detector.domain.device.external.api.Device;
 import ee.digit25.detector.domain.device.external.api.DeviceApi;
 import ee.digit25.detector.domain.device.external.api.DeviceApiProperties;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -17,22 +19,29 @@ public class DeviceRequester {
 
     private final DeviceApi api;
     private final DeviceApiProperties properties;
+    private final RequestGovernor governor;
 
     public Device get(String mac) {
-        log.info("Requesting device with mac({})", mac);
+        log.debug("Requesting device with mac({})", mac);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), mac));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), mac));
     }
 
     public List<Device> get(List<String> macs) {
-        log.info("Requesting devices with macs {}", macs);
+        log.debug("Requesting devices with macs {}", macs);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), macs));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), macs));
+    }
+
+    public CompletableFuture<List<Device>> getAsync(List<String> macs) {
+        log.debug("Requesting devices with macs {}", macs);
+
+        return governor.executeAsync(RequestPriority.ENRICHMENT, api.get(properties.getToken(), macs));
     }
 
     public List<Device> get(int pageNumber, int pageSize) {
-        log.info("Requesting persons page {} of size {}", pageNumber, pageSize);
+        log.debug("Requesting persons page {} of size {}", pageNumber, pageSize);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), pageNumber, pageSize));
+        return governor.execute(RequestPriority.BACKGROUND, api.get(properties.getToken(), pageNumber, pageSize));
     }
 }
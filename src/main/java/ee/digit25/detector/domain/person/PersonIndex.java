@@ -0,0 +1,85 @@
+package ee.digit25.detector.domain.person;
+
+import ee.digit25.detector.common.index.SortedKeys;
+import ee.digit25.detector.domain.person.external.api.Person;
+import org.springframework.stereotype.Component;
+
+import java.util.TreeMap;
+
+/**
+ * Preloaded persons reduced to a flag byte per person code. Replaced as a whole on every refresh.
+ */
+@Component
+public class PersonIndex {
+
+    private static final byte WARRANT_ISSUED = 1;
+    private static final byte HAS_CONTRACT = 1 << 1;
+    private static final byte BLACKLISTED = 1 << 2;
+    private static final byte FLAGS = WARRANT_ISSUED | HAS_CONTRACT | BLACKLISTED;
+
+    private volatile Snapshot snapshot = new Snapshot(SortedKeys.EMPTY, new byte[0]);
+
+    /**
+     * Returns null when the person is not indexed.
+     */
+    public Boolean isValid(String personCode) {
+        Snapshot current = snapshot;
+        int id = current.codes.indexOf(personCode);
+        if (id < 0) {
+            return null;
+        }
+        return (current.flags[id] & FLAGS) == HAS_CONTRACT;
+    }
+
+    public boolean contains(String personCode) {
+        return snapshot.codes.indexOf(personCode) >= 0;
+    }
+
+    public int size() {
+        return snapshot.codes.size();
+    }
+
+    public long estimatedBytes() {
+        Snapshot current = snapshot;
+        return current.codes.estimatedBytes() + 16 + current.flags.length;
+    }
+
+    public Builder builder() {
+        return new Builder();
+    }
+
+    public class Builder {
+
+        private final TreeMap<String, Byte> flags = new TreeMap<>();
+
+        public void add(Person person) {
+            if (person.getPersonCode() == null) {
+                return;
+            }
+
+            byte value = 0;
+            if (Boolean.TRUE.equals(person.getWarrantIssued())) {
+                value |= WARRANT_ISSUED;
+            }
+            if (Boolean.TRUE.equals(person.getHasContract())) {
+                value |= HAS_CONTRACT;
+            }
+            if (Boolean.TRUE.equals(person.getBlacklisted())) {
+                value |= BLACKLISTED;
+            }
+            flags.put(person.getPersonCode(), value);
+        }
+
+        public void publish() {
+            byte[] values = new byte[flags.size()];
+            int i = 0;
+            for (byte value : flags.values()) {
+                values[i++] = value;
+            }
+            snapshot = new Snapshot(SortedKeys.ofSorted(flags.keySet()), values);
+        }
+    }
+
+    private record Snapshot(SortedKeys codes, byte[] flags) {
+    }
+}
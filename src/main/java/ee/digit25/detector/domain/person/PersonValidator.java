@@ -1,34 +1,27 @@
 package ee.digit25.detector.domain.person;
 
-import ee.digit25.detector.domain.person.external.PersonRequester;
 import ee.digit25.detector.domain.person.external.api.Person;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PersonValidator {
 
-    private final PersonRequester requester;
+    private final PersonIndex index;
 
-    public boolean isValid(String personCode) {
-        log.info("Validating person {}", personCode);
-        
-        Person person = requester.get(personCode);
-        
-        return !person.getWarrantIssued() && person.getHasContract() && !person.getBlacklisted();
+    /**
+     * Decides from the preloaded index when the person is indexed, from the resolved person otherwise.
+     */
+    public boolean isValid(String personCode, Person resolved) {
+        Boolean indexed = index.isValid(personCode);
+        return indexed != null ? indexed : isValid(resolved);
     }
 
-    public boolean areValid(List<String> personCodes) {
-        log.info("Validating persons {}", personCodes);
-
-        List<Person> persons = requester.get(personCodes);
-        return persons.stream().allMatch(person ->
-                !person.getWarrantIssued() && person.getHasContract() && !person.getBlacklisted()
-        );
+    public boolean isValid(Person person) {
+        return person != null
+                && !Boolean.TRUE.equals(person.getWarrantIssued())
+                && Boolean.TRUE.equals(person.getHasContract())
+                && !Boolean.TRUE.equals(person.getBlacklisted());
     }
 }
@@ -1,6 +1,7 @@
 package ee.digit25.detector.domain.person.external;
 
-import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.governor.RequestGovernor;
+import ee.digit25.detector.common.governor.RequestPriority;
 import ee.digit25.detector.domain.person.external.api.Person;
 import ee.digit25.detector.domain.person.external.api.PersonApi;
 import ee.digit25.detector.domain.person.external.api.PersonApiProperties;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -17,22 +19,29 @@ public class PersonRequester {
 
     private final PersonApi api;
     private final PersonApiProperties properties;
+    private final RequestGovernor governor;
 
     public Person get(String personCode) {
-        log.info("Requesting person with personCode {}", personCode);
+        log.debug("Requesting person with personCode {}", personCode);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), personCode));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), personCode));
     }
 
     public List<Person> get(List<String> personCodes) {
-        log.info("Requesting persons with personCodes {}", personCodes);
+        log.debug("Requesting persons with personCodes {}", personCodes);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), personCodes));
+        return governor.execute(RequestPriority.ENRICHMENT, api.get(properties.getToken(), personCodes));
+    }
+
+    public CompletableFuture<List<Person>> getAsync(List<String> personCodes) {
+        log.debug("Requesting persons with personCodes {}", personCodes);
+
+        return governor.executeAsync(RequestPriority.ENRICHMENT, api.get(properties.getToken(), personCodes));
     }
 
     public List<Person> get(int pageNumber, int pageSize) {
-        log.info("Requesting persons page {} of size {}", pageNumber, pageSize);
+        log.debug("Requesting persons page {} of size {}", pageNumber, pageSize);
 
-        return RetrofitRequestExecutor.executeRaw(api.get(properties.getToken(), pageNumber, pageSize));
+        return governor.execute(RequestPriority.BACKGROUND, api.get(properties.getToken(), pageNumber, pageSize));
     }
 }
@@ -0,0 +1,29 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class Decision {
+
+    private final Transaction transaction;
+
+    /**
+     * Name of the rule that rejected the transaction, null when it is legitimate.
+     */
+    private final String rejectedBy;
+
+    public static Decision legitimate(Transaction transaction) {
+        return new Decision(transaction, null);
+    }
+
+    public static Decision rejected(Transaction transaction, String rule) {
+        return new Decision(transaction, rule);
+    }
+
+    public boolean isLegitimate() {
+        return rejectedBy == null;
+    }
+}
@@ -0,0 +1,45 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.common.cache.CacheProperties;
+import ee.digit25.detector.common.cache.EntityCache;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.external.api.Device;
+import ee.digit25.detector.domain.person.external.api.Person;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Getter
+@Component
+public class EntityCaches {
+
+    private final EntityCache<String, Person> persons;
+    private final EntityCache<String, Device> devices;
+    private final EntityCache<String, Account> accounts;
+
+    public EntityCaches(CacheProperties properties, Metrics metrics) {
+        this.persons = properties.getPersons().create("persons");
+        this.devices = properties.getDevices().create("devices");
+        this.accounts = properties.getAccounts().create("accounts");
+
+        register(metrics, persons);
+        register(metrics, devices);
+        register(metrics, accounts);
+    }
+
+    public void invalidateAccounts(Collection<String> accountNumbers) {
+        accounts.invalidateAll(accountNumbers);
+    }
+
+    private static void register(Metrics metrics, EntityCache<?, ?> cache) {
+        String name = "cache." + cache.getName();
+        metrics.gauge(name + ".size", cache::size);
+        metrics.gauge(name + ".hits", () -> cache.stats().getHits());
+        metrics.gauge(name + ".misses", () -> cache.stats().getMisses());
+        metrics.gauge(name + ".coalesced", () -> cache.stats().getCoalesced());
+        metrics.gauge(name + ".hitPct", () -> Math.round(cache.stats().hitRatio() * 100));
+        metrics.gauge(name + ".evictions", () -> cache.stats().getEvictions());
+    }
+}
@@ -0,0 +1,10 @@
+package ee.digit25.detector.domain.transaction;
+
+/**
+ * Kinds of remote data a transaction references, resolved per batch by {@link TransactionEntityResolver}.
+ */
+public enum EntityType {
+    PERSON,
+    DEVICE,
+    ACCOUNT
+}
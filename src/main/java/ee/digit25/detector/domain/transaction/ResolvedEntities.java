@@ -0,0 +1,43 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.external.api.Device;
+import ee.digit25.detector.domain.person.external.api.Person;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public class ResolvedEntities {
+
+    public static final ResolvedEntities NONE = new ResolvedEntities(Map.of(), Map.of(), Map.of());
+
+    private final Map<String, Person> persons;
+    private final Map<String, Device> devices;
+    private final Map<String, Account> accounts;
+
+    public Person person(String personCode) {
+        return persons.get(personCode);
+    }
+
+    public Device device(String mac) {
+        return devices.get(mac);
+    }
+
+    public Account account(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    /**
+     * Combines entities resolved in stages, every entity type is expected to be resolved in at most one of them.
+     */
+    public ResolvedEntities plus(ResolvedEntities other) {
+        return new ResolvedEntities(
+                other.persons.isEmpty() ? persons : other.persons,
+                other.devices.isEmpty() ? devices : other.devices,
+                other.accounts.isEmpty() ? accounts : other.accounts
+        );
+    }
+}
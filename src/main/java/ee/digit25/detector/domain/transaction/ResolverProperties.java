@@ -0,0 +1,22 @@
+package ee.digit25.detector.domain.transaction;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.resolver")
+public class ResolverProperties {
+
+    /**
+     * Maximum number of keys sent to a single by-codes / by-macs / by-numbers request.
+     */
+    @Min(1)
+    private int chunkSize = 100;
+}
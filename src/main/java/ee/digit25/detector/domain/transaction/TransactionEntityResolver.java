@@ -0,0 +1,191 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.common.MinorUnits;
+import ee.digit25.detector.domain.account.AccountIndex;
+import ee.digit25.detector.domain.account.AccountLedger;
+import ee.digit25.detector.domain.account.external.AccountRequester;
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.DeviceIndex;
+import ee.digit25.detector.domain.device.external.DeviceRequester;
+import ee.digit25.detector.domain.device.external.api.Device;
+import ee.digit25.detector.domain.person.PersonIndex;
+import ee.digit25.detector.domain.person.external.PersonRequester;
+import ee.digit25.detector.domain.person.external.api.Person;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Resolves every person, device and account referenced by a batch of transactions with one bulk request
+ * per entity type (split into chunks of {@link ResolverProperties#getChunkSize()} keys). Lookups go through
+ * {@link EntityCaches}, so only keys that are neither cached nor already being fetched reach the network.
+ * Persons, devices and recipient accounts found in the preloaded indices are decided locally and not resolved at all.
+ * Sender accounts are only resolved when they are not indexed or their {@link AccountLedger} balance is due for a
+ * reconcile. They bypass the cache, whose entries and coalesced loads may predate a settlement, and reconcile the
+ * ledger as of the moment their request was sent.
+ * <p>
+ * Callers can limit resolution to some {@link EntityType entity types}, the maps of the others are left empty.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionEntityResolver {
+
+    private final PersonRequester personRequester;
+    private final DeviceRequester deviceRequester;
+    private final AccountRequester accountRequester;
+    private final PersonIndex personIndex;
+    private final DeviceIndex deviceIndex;
+    private final AccountIndex accountIndex;
+    private final AccountLedger ledger;
+    private final EntityCaches caches;
+    private final ResolverProperties properties;
+
+    public ResolvedEntities resolve(List<Transaction> transactions) {
+        return resolve(transactions, EnumSet.allOf(EntityType.class));
+    }
+
+    public ResolvedEntities resolve(List<Transaction> transactions, Set<EntityType> types) {
+        Keys keys = keys(transactions, types);
+
+        long observedAt = System.nanoTime();
+        Map<String, Account> senders = fetch(List.copyOf(keys.senderAccounts), accountRequester::get, Account::getNumber);
+        reconcile(senders, observedAt);
+
+        return new ResolvedEntities(
+                caches.getPersons().getAll(keys.personCodes, codes -> fetch(codes, personRequester::get, Person::getPersonCode)),
+                caches.getDevices().getAll(keys.macs, macs -> fetch(macs, deviceRequester::get, Device::getMac)),
+                merge(caches.getAccounts().getAll(keys.accountNumbers, numbers -> fetch(numbers, accountRequester::get, Account::getNumber)), senders)
+        );
+    }
+
+    public CompletableFuture<ResolvedEntities> resolveAsync(List<Transaction> transactions) {
+        return resolveAsync(transactions, EnumSet.allOf(EntityType.class));
+    }
+
+    /**
+     * Non-blocking variant of {@link #resolve}, the requested entity types are fetched concurrently.
+     */
+    public CompletableFuture<ResolvedEntities> resolveAsync(List<Transaction> transactions, Set<EntityType> types) {
+        Keys keys = keys(transactions, types);
+
+        CompletableFuture<Map<String, Person>> persons = caches.getPersons()
+                .getAllAsync(keys.personCodes, codes -> fetchAsync(codes, personRequester::getAsync, Person::getPersonCode));
+        CompletableFuture<Map<String, Device>> devices = caches.getDevices()
+                .getAllAsync(keys.macs, macs -> fetchAsync(macs, deviceRequester::getAsync, Device::getMac));
+        CompletableFuture<Map<String, Account>> accounts = caches.getAccounts()
+                .getAllAsync(keys.accountNumbers, numbers -> fetchAsync(numbers, accountRequester::getAsync, Account::getNumber));
+
+        long observedAt = System.nanoTime();
+        CompletableFuture<Map<String, Account>> senders = fetchAsync(
+                List.copyOf(keys.senderAccounts), accountRequester::getAsync, Account::getNumber);
+
+        return CompletableFuture.allOf(persons, devices, accounts, senders).thenApply(ignored -> {
+            reconcile(senders.join(), observedAt);
+            return new ResolvedEntities(persons.join(), devices.join(), merge(accounts.join(), senders.join()));
+        });
+    }
+
+    private void reconcile(Map<String, Account> senders, long observedAt) {
+        senders.forEach((number, account) -> {
+            if (account.getBalance() != null) {
+                ledger.reconcile(number, MinorUnits.floor(account.getBalance()), observedAt);
+            }
+        });
+    }
+
+    private static Map<String, Account> merge(Map<String, Account> accounts, Map<String, Account> senders) {
+        if (senders.isEmpty()) {
+            return accounts;
+        }
+        Map<String, Account> merged = new HashMap<>(accounts);
+        merged.putAll(senders);
+        return merged;
+    }
+
+    private <T> Map<String, T> fetch(List<String> keys, Function<List<String>, List<T>> requester, Function<T, String> keyOf) {
+        Map<String, T> result = new HashMap<>(keys.size() * 2);
+
+        for (List<String> chunk : partition(keys, properties.getChunkSize())) {
+            for (T entity : requester.apply(chunk)) {
+                result.put(keyOf.apply(entity), entity);
+            }
+        }
+
+        return result;
+    }
+
+    private <T> CompletableFuture<Map<String, T>> fetchAsync(
+            List<String> keys,
+            Function<List<String>, CompletableFuture<List<T>>> requester,
+            Function<T, String> keyOf
+    ) {
+        List<CompletableFuture<List<T>>> chunks = partition(keys, properties.getChunkSize()).stream().map(requester).toList();
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<String, T> result = new HashMap<>(keys.size() * 2);
+            for (CompletableFuture<List<T>> chunk : chunks) {
+                for (T entity : chunk.join()) {
+                    result.put(keyOf.apply(entity), entity);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static List<List<String>> partition(List<String> keys, int size) {
+        List<List<String>> chunks = new ArrayList<>((keys.size() + size - 1) / size);
+
+        for (int i = 0; i < keys.size(); i += size) {
+            chunks.add(keys.subList(i, Math.min(i + size, keys.size())));
+        }
+
+        return chunks;
+    }
+
+    private Keys keys(List<Transaction> transactions, Set<EntityType> types) {
+        Keys keys = new Keys(new LinkedHashSet<>(), new LinkedHashSet<>(), new LinkedHashSet<>(), new LinkedHashSet<>());
+        boolean persons = types.contains(EntityType.PERSON);
+        boolean devices = types.contains(EntityType.DEVICE);
+        boolean accounts = types.contains(EntityType.ACCOUNT);
+
+        for (Transaction transaction : transactions) {
+            if (persons) {
+                addUnless(keys.personCodes, transaction.getSender(), personIndex::contains);
+                addUnless(keys.personCodes, transaction.getRecipient(), personIndex::contains);
+            }
+            if (devices) {
+                addUnless(keys.macs, transaction.getDeviceMac(), deviceIndex::contains);
+            }
+            if (accounts) {
+                String sender = transaction.getSenderAccount();
+                if (sender != null && (!accountIndex.contains(sender) || ledger.needsReconcile(sender))) {
+                    keys.senderAccounts.add(sender);
+                }
+                addUnless(keys.accountNumbers, transaction.getRecipientAccount(), accountIndex::contains);
+            }
+        }
+
+        keys.accountNumbers.removeAll(keys.senderAccounts);
+        return keys;
+    }
+
+    private static void addUnless(Set<String> keys, String key, Predicate<String> indexed) {
+        if (!indexed.test(key)) {
+            keys.add(key);
+        }
+    }
+
+    private record Keys(Set<String> personCodes, Set<String> macs, Set<String> accountNumbers, Set<String> senderAccounts) {
+    }
+}
@@ -1,36 +1,203 @@
 package ee.digit25.detector.domain.transaction;
 
-import ee.digit25.detector.domain.account.AccountValidator;
-import ee.digit25.detector.domain.device.DeviceValidator;
-import ee.digit25.detector.domain.person.PersonValidator;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.common.metrics.Timer;
 import ee.digit25.detector.domain.transaction.external.api.Transaction;
-import lombok.RequiredArgsConstructor;
+import ee.digit25.detector.domain.transaction.rule.RuleProperties;
+import ee.digit25.detector.domain.transaction.rule.TransactionRule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Decides transactions with the {@link TransactionRule} beans, cheapest rule first. A transaction is rejected by the
+ * first rule it fails and no later rule, nor the lookups it needs, is evaluated for it. Batches are evaluated rule by
+ * rule and each entity type is resolved only once a rule needs it, for the transactions still standing.
+ * <p>
+ * Every rule counts the transactions it evaluated and rejected as {@code rule.<name>.evaluated} and
+ * {@code rule.<name>.rejected}.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class TransactionValidator {
 
-    private final PersonValidator personValidator;
-    private final DeviceValidator deviceValidator;
-    private final AccountValidator accountValidator;
+    private final List<RankedRule> rules;
+    private final TransactionEntityResolver resolver;
+    private final boolean stagedResolution;
+    private final Timer resolveTimer;
 
-    public boolean isLegitimate(Transaction transaction) {
-        boolean isLegitimate = true;
+    public TransactionValidator(
+            List<TransactionRule> rules,
+            RuleProperties properties,
+            TransactionEntityResolver resolver,
+            Metrics metrics
+    ) {
+        this.resolver = resolver;
+        this.stagedResolution = properties.isStagedResolution();
+        this.resolveTimer = metrics.timer("stage.resolve");
+        this.rules = rules.stream()
+                .filter(rule -> isEnabled(rule, properties))
+                .map(rule -> new RankedRule(
+                        rule,
+                        properties.getCosts().getOrDefault(rule.name(), rule.cost()),
+                        metrics.counter("rule." + rule.name() + ".evaluated"),
+                        metrics.counter("rule." + rule.name() + ".rejected")))
+                .sorted(Comparator.comparing((RankedRule ranked) -> ranked.rule.reserves())
+                        .thenComparingInt(RankedRule::cost)
+                        .thenComparing(ranked -> ranked.rule.name()))
+                .toList();
 
-//        isLegitimate &= personValidator.isValid(transaction.getRecipient());
-//        isLegitimate &= personValidator.isValid(transaction.getSender());
+        log.info("Transaction rules in order {}", this.rules.stream().map(RankedRule::toString).toList());
+    }
+
+    /**
+     * Decides a single transaction whose entities are already resolved.
+     */
+    public Decision decide(Transaction transaction, ResolvedEntities entities) {
+        for (RankedRule ranked : rules) {
+            ranked.evaluated.increment();
+            if (!ranked.rule.test(transaction, entities)) {
+                ranked.rejected.increment();
+                return Decision.rejected(transaction, ranked.rule.name());
+            }
+        }
+        return Decision.legitimate(transaction);
+    }
+
+    /**
+     * Decides a batch, resolving the entities the rules need along the way.
+     */
+    public List<Decision> validate(List<Transaction> transactions) {
+        Evaluation evaluation = new Evaluation(transactions);
+
+        for (Set<EntityType> missing = evaluation.advance(); !missing.isEmpty(); missing = evaluation.advance()) {
+            long start = System.nanoTime();
+            ResolvedEntities resolved = resolver.resolve(evaluation.standing, missing);
+            resolveTimer.record(System.nanoTime() - start);
+            evaluation.resolved(missing, resolved);
+        }
+
+        return evaluation.decisions();
+    }
+
+    /**
+     * Non-blocking variant of {@link #validate}.
+     */
+    public CompletableFuture<List<Decision>> validateAsync(List<Transaction> transactions) {
+        return continueAsync(new Evaluation(transactions));
+    }
+
+    private CompletableFuture<List<Decision>> continueAsync(Evaluation evaluation) {
+        Set<EntityType> missing = evaluation.advance();
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(evaluation.decisions());
+        }
+
+        long start = System.nanoTime();
+        return resolver.resolveAsync(evaluation.standing, missing).thenCompose(resolved -> {
+            resolveTimer.record(System.nanoTime() - start);
+            evaluation.resolved(missing, resolved);
+            return continueAsync(evaluation);
+        });
+    }
 
-        isLegitimate &= personValidator.areValid(List.of(transaction.getRecipient(), transaction.getSender()));
+    private static boolean isEnabled(TransactionRule rule, RuleProperties properties) {
+        if (!properties.getDisabled().contains(rule.name())) {
+            return true;
+        }
+        if (rule.reserves()) {
+            // Legitimate verdicts are expected to hold a reservation, see VerdictSubmitter
+            log.warn("Rule {} reserves the amount and can not be disabled", rule.name());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * State of a batch between resolution stages.
+     */
+    private class Evaluation {
+
+        private List<Transaction> standing;
+        private final List<Decision> rejected = new ArrayList<>();
+        private final Set<EntityType> available = EnumSet.noneOf(EntityType.class);
+        private ResolvedEntities entities = ResolvedEntities.NONE;
+        private int next;
+
+        private Evaluation(List<Transaction> transactions) {
+            this.standing = transactions;
+        }
+
+        /**
+         * Evaluates rules until one needs entities that are not resolved yet and returns those, empty once every
+         * transaction is decided.
+         */
+        private Set<EntityType> advance() {
+            for (; next < rules.size() && !standing.isEmpty(); next++) {
+                RankedRule ranked = rules.get(next);
+                if (!available.containsAll(ranked.rule.requires())) {
+                    return missing(ranked);
+                }
+                apply(ranked);
+            }
+            return Set.of();
+        }
+
+        private void resolved(Set<EntityType> types, ResolvedEntities resolved) {
+            available.addAll(types);
+            entities = entities.plus(resolved);
+        }
+
+        private List<Decision> decisions() {
+            List<Decision> decisions = new ArrayList<>(rejected.size() + standing.size());
+            decisions.addAll(rejected);
+            for (Transaction transaction : standing) {
+                decisions.add(Decision.legitimate(transaction));
+            }
+            return decisions;
+        }
+
+        private Set<EntityType> missing(RankedRule ranked) {
+            Set<EntityType> missing = EnumSet.noneOf(EntityType.class);
+            if (stagedResolution) {
+                missing.addAll(ranked.rule.requires());
+            } else {
+                for (int i = next; i < rules.size(); i++) {
+                    missing.addAll(rules.get(i).rule.requires());
+                }
+            }
+            missing.removeAll(available);
+            return missing;
+        }
+
+        private void apply(RankedRule ranked) {
+            List<Transaction> passed = new ArrayList<>(standing.size());
+            for (Transaction transaction : standing) {
+                if (ranked.rule.test(transaction, entities)) {
+                    passed.add(transaction);
+                } else {
+                    rejected.add(Decision.rejected(transaction, ranked.rule.name()));
+                }
+            }
+
+            ranked.evaluated.add(standing.size());
+            ranked.rejected.add(standing.size() - passed.size());
+            standing = passed;
+        }
+    }
 
-        isLegitimate &= deviceValidator.isValid(transaction.getDeviceMac());
-        isLegitimate &= accountValidator.isValidSenderAccount(transaction.getSenderAccount(), transaction.getAmount(), transaction.getSender());
-        isLegitimate &= accountValidator.isValidRecipientAccount(transaction.getRecipientAccount(), transaction.getRecipient());
+    private record RankedRule(TransactionRule rule, int cost, LongAdder evaluated, LongAdder rejected) {
 
-        return isLegitimate;
+        @Override
+        public String toString() {
+            return rule.name() + "(" + cost + ")";
+        }
     }
 }
@@ -1,6 +1,7 @@
 package ee.digit25.detector.domain.transaction.external;
 
-import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.governor.RequestGovernor;
+import ee.digit25.detector.common.governor.RequestPriority;
 import ee.digit25.detector.domain.transaction.external.api.Transaction;
 import ee.digit25.detector.domain.transaction.external.api.TransactionApiProperties;
 import ee.digit25.detector.domain.transaction.external.api.TransactionsApi;
@@ -17,10 +18,11 @@ public class TransactionRequester {
 
     private final TransactionsApi api;
     private final TransactionApiProperties properties;
+    private final RequestGovernor governor;
 
     public List<Transaction> getUnverified(int amount) {
-        log.info("Requesting a batch of unverified transactions of size {}", amount);
-        return RetrofitRequestExecutor.executeRaw(api.getUnverified(properties.getToken(), amount));
+        log.debug("Requesting a batch of unverified transactions of size {}", amount);
+        return governor.execute(RequestPriority.FETCH, api.getUnverified(properties.getToken(), amount));
     }
 
 }
@@ -1,6 +1,7 @@
 package ee.digit25.detector.domain.transaction.external;
 
-import ee.bitweb.core.retrofit.RetrofitRequestExecutor;
+import ee.digit25.detector.common.governor.RequestGovernor;
+import ee.digit25.detector.common.governor.RequestPriority;
 import ee.digit25.detector.domain.transaction.external.api.Transaction;
 import ee.digit25.detector.domain.transaction.external.api.TransactionApiProperties;
 import ee.digit25.detector.domain.transaction.external.api.TransactionsApi;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -17,28 +19,41 @@ public class TransactionVerifier {
 
     private final TransactionsApi api;
     private final TransactionApiProperties properties;
+    private final RequestGovernor governor;
 
     public void verify(Transaction transaction) {
-        log.info("Verifying transaction {}", transaction.getId());
+        log.debug("Verifying transaction {}", transaction.getId());
 
-        RetrofitRequestExecutor.executeRaw(api.verify(properties.getToken(), transaction.getId()));
+        governor.execute(RequestPriority.VERDICT, api.verify(properties.getToken(), transaction.getId()));
     }
 
     public void reject(Transaction transaction) {
-        log.info("Rejecting transaction {}", transaction.getId());
+        log.debug("Rejecting transaction {}", transaction.getId());
 
-        RetrofitRequestExecutor.executeRaw(api.reject(properties.getToken(), transaction.getId()));
+        governor.execute(RequestPriority.VERDICT, api.reject(properties.getToken(), transaction.getId()));
     }
 
     public void verify(List<String> ids) {
-        log.info("Verifying transactions {}", ids);
+        log.debug("Verifying transactions {}", ids);
 
-        RetrofitRequestExecutor.executeRaw(api.verify(properties.getToken(), ids));
+        governor.execute(RequestPriority.VERDICT, api.verify(properties.getToken(), ids));
     }
 
     public void reject(List<String> ids) {
-        log.info("Rejecting transactions {}", ids);
+        log.debug("Rejecting transactions {}", ids);
 
-        RetrofitRequestExecutor.executeRaw(api.reject(properties.getToken(), ids));
+        governor.execute(RequestPriority.VERDICT, api.reject(properties.getToken(), ids));
+    }
+
+    public CompletableFuture<Void> verifyAsync(List<String> ids) {
+        log.debug("Verifying transactions {}", ids);
+
+        return governor.executeAsync(RequestPriority.VERDICT, api.verify(properties.getToken(), ids));
+    }
+
+    public CompletableFuture<Void> rejectAsync(List<String> ids) {
+        log.debug("Rejecting transactions {}", ids);
+
+        return governor.executeAsync(RequestPriority.VERDICT, api.reject(properties.getToken(), ids));
     }
 }
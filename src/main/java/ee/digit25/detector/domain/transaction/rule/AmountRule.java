@@ -0,0 +1,35 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Only positive amounts are transferred.
+ */
+@Component
+public class AmountRule implements TransactionRule {
+
+    @Override
+    public String name() {
+        return "amount";
+    }
+
+    @Override
+    public int cost() {
+        return 2;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of();
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return transaction.getAmount() != null && transaction.getAmount().signum() > 0;
+    }
+}
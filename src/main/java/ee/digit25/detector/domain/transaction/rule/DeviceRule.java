@@ -0,0 +1,40 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.device.DeviceValidator;
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * The transaction was not made from a blacklisted device.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceRule implements TransactionRule {
+
+    private final DeviceValidator validator;
+
+    @Override
+    public String name() {
+        return "device";
+    }
+
+    @Override
+    public int cost() {
+        return 20;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of(EntityType.DEVICE);
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return validator.isValid(transaction.getDeviceMac(), entities.device(transaction.getDeviceMac()));
+    }
+}
@@ -0,0 +1,41 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.account.AccountValidator;
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * The recipient account is open and owned by the recipient.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipientAccountRule implements TransactionRule {
+
+    private final AccountValidator validator;
+
+    @Override
+    public String name() {
+        return "recipientAccount";
+    }
+
+    @Override
+    public int cost() {
+        return 30;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of(EntityType.ACCOUNT);
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return validator.isValidRecipientAccount(
+                transaction.getRecipientAccount(), entities.account(transaction.getRecipientAccount()), transaction.getRecipient());
+    }
+}
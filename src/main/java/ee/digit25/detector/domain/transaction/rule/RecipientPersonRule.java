@@ -0,0 +1,40 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.person.PersonValidator;
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * The recipient has a contract and is neither blacklisted nor wanted.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipientPersonRule implements TransactionRule {
+
+    private final PersonValidator validator;
+
+    @Override
+    public String name() {
+        return "recipientPerson";
+    }
+
+    @Override
+    public int cost() {
+        return 10;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of(EntityType.PERSON);
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return validator.isValid(transaction.getRecipient(), entities.person(transaction.getRecipient()));
+    }
+}
@@ -0,0 +1,40 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Every party, account, device and amount of the transaction is present.
+ */
+@Component
+public class RequiredFieldsRule implements TransactionRule {
+
+    @Override
+    public String name() {
+        return "requiredFields";
+    }
+
+    @Override
+    public int cost() {
+        return 1;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of();
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return transaction.getSender() != null
+                && transaction.getRecipient() != null
+                && transaction.getSenderAccount() != null
+                && transaction.getRecipientAccount() != null
+                && transaction.getDeviceMac() != null
+                && transaction.getAmount() != null;
+    }
+}
@@ -0,0 +1,37 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.rules")
+public class RuleProperties {
+
+    /**
+     * Resolve each entity type only for the transactions that passed every cheaper rule. When disabled all
+     * entities needed by the remote rules are resolved at once after the local rules, one round trip instead of one
+     * per entity type.
+     */
+    private boolean stagedResolution = true;
+
+    /**
+     * Names of rules to skip. Rules that reserve the amount can not be disabled.
+     */
+    private Set<String> disabled = new HashSet<>();
+
+    /**
+     * Cost overrides by rule name, to reorder rules after their rejection rates.
+     */
+    private Map<String, Integer> costs = new HashMap<>();
+}
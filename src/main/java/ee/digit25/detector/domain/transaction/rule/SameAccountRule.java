@@ -0,0 +1,36 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Money is not sent to the account it is taken from.
+ */
+@Component
+public class SameAccountRule implements TransactionRule {
+
+    @Override
+    public String name() {
+        return "sameAccount";
+    }
+
+    @Override
+    public int cost() {
+        return 2;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of();
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return !Objects.equals(transaction.getSenderAccount(), transaction.getRecipientAccount());
+    }
+}
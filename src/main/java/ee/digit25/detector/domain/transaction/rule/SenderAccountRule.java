@@ -0,0 +1,46 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.account.AccountValidator;
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * The sender account is open, owned by the sender and covers the amount, which is reserved in the ledger when it does.
+ */
+@Component
+@RequiredArgsConstructor
+public class SenderAccountRule implements TransactionRule {
+
+    private final AccountValidator validator;
+
+    @Override
+    public String name() {
+        return "senderAccount";
+    }
+
+    @Override
+    public int cost() {
+        return 40;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of(EntityType.ACCOUNT);
+    }
+
+    @Override
+    public boolean reserves() {
+        return true;
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        return validator.reserveSenderAccount(
+                transaction.getSenderAccount(), entities.account(transaction.getSenderAccount()), transaction.getAmount(), transaction.getSender());
+    }
+}
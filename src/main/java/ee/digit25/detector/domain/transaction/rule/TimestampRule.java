@@ -0,0 +1,38 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * The deadline of a transaction can not be earlier than the transaction itself.
+ */
+@Component
+public class TimestampRule implements TransactionRule {
+
+    @Override
+    public String name() {
+        return "timestamp";
+    }
+
+    @Override
+    public int cost() {
+        return 3;
+    }
+
+    @Override
+    public Set<EntityType> requires() {
+        return Set.of();
+    }
+
+    @Override
+    public boolean test(Transaction transaction, ResolvedEntities entities) {
+        LocalDateTime timestamp = transaction.getTimestamp();
+        LocalDateTime deadline = transaction.getDeadline();
+        return timestamp == null || deadline == null || !deadline.isBefore(timestamp);
+    }
+}
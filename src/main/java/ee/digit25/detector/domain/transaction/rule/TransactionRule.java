@@ -0,0 +1,40 @@
+package ee.digit25.detector.domain.transaction.rule;
+
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.TransactionValidator;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+
+import java.util.Set;
+
+/**
+ * Single check a transaction has to pass to be legitimate. Rules are picked up as beans by
+ * {@link TransactionValidator} and evaluated cheapest first, a transaction is rejected by the first rule it fails.
+ */
+public interface TransactionRule {
+
+    /**
+     * Name used in decisions, metrics and the {@code detector.rules.*} properties.
+     */
+    String name();
+
+    /**
+     * Relative cost of evaluating the rule including the lookups it needs, lower runs earlier.
+     */
+    int cost();
+
+    /**
+     * Entities that have to be resolved before the rule can be evaluated, empty for rules decided from the
+     * transaction alone.
+     */
+    Set<EntityType> requires();
+
+    /**
+     * Rules with side effects, such as reserving the amount, are evaluated after every other rule regardless of cost.
+     */
+    default boolean reserves() {
+        return false;
+    }
+
+    boolean test(Transaction transaction, ResolvedEntities entities);
+}
@@ -0,0 +1,109 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Earliest-deadline-first ordering of pipeline work together with slack and deadline miss accounting.
+ * Transactions without a deadline are ordered last.
+ */
+@Component
+public class DeadlineScheduler {
+
+    public static final Comparator<Transaction> EARLIEST_DEADLINE_FIRST =
+            Comparator.comparing(Transaction::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final SchedulerProperties properties;
+    private final ZoneId zone;
+
+    private final LongAdder decided = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder totalSlackMillis = new LongAdder();
+    private final AtomicLong minSlackMillis = new AtomicLong(Long.MAX_VALUE);
+
+    public DeadlineScheduler(SchedulerProperties properties, Metrics metrics) {
+        this.properties = properties;
+        this.zone = properties.getZone();
+
+        metrics.gauge("deadline.decided", decided::sum);
+        metrics.gauge("deadline.missed", missed::sum);
+        metrics.gauge("deadline.expiredBeforeValidation", expired::sum);
+        metrics.gauge("deadline.avgSlackMs", () -> {
+            long count = decided.sum();
+            return count == 0 ? 0 : totalSlackMillis.sum() / count;
+        });
+        metrics.gauge("deadline.minSlackMs", () -> {
+            long min = minSlackMillis.get();
+            return min == Long.MAX_VALUE ? 0 : min;
+        });
+        metrics.onInterval(() -> minSlackMillis.set(Long.MAX_VALUE));
+    }
+
+    /**
+     * Milliseconds left until the deadline, negative once it has passed and {@link Long#MAX_VALUE} without one.
+     */
+    public long slackMillis(Transaction transaction) {
+        LocalDateTime deadline = transaction.getDeadline();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return deadline.atZone(zone).toInstant().toEpochMilli() - System.currentTimeMillis();
+    }
+
+    /**
+     * Milliseconds since the transaction was made, zero without a timestamp.
+     */
+    public long ageMillis(Transaction transaction) {
+        LocalDateTime timestamp = transaction.getTimestamp();
+        if (timestamp == null) {
+            return 0;
+        }
+        return System.currentTimeMillis() - timestamp.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    public boolean cannotFinishInTime(Transaction transaction) {
+        return slackMillis(transaction) < properties.getMinSlack().toMillis();
+    }
+
+    /**
+     * Nanoseconds a verdict for the transaction may still wait before it has to be flushed.
+     */
+    public long flushDelayNanos(Transaction transaction) {
+        long slack = slackMillis(transaction);
+        if (slack == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, slack - properties.getUrgentSlack().toMillis()));
+    }
+
+    public SchedulerProperties.ExpiredPolicy expiredPolicy() {
+        return properties.getExpiredPolicy();
+    }
+
+    public void onExpired(Transaction transaction) {
+        expired.increment();
+    }
+
+    public void onSubmitted(Transaction transaction) {
+        long slack = slackMillis(transaction);
+        if (slack == Long.MAX_VALUE) {
+            return;
+        }
+
+        decided.increment();
+        totalSlackMillis.add(slack);
+        minSlackMillis.accumulateAndGet(slack, Math::min);
+        if (slack < 0) {
+            missed.increment();
+        }
+    }
+}
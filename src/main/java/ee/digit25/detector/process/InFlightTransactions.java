@@ -0,0 +1,53 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of transactions between fetch and verdict submission and guards against the same
+ * transaction entering the pipeline twice while its verdict is still pending.
+ */
+@Component
+public class InFlightTransactions {
+
+    private final Semaphore permits;
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+    public InFlightTransactions(PipelineProperties properties, Metrics metrics) {
+        this.permits = new Semaphore(properties.getMaxInFlight());
+
+        metrics.gauge("pipeline.inFlight", ids::size);
+    }
+
+    public void acquire(int amount) throws InterruptedException {
+        permits.acquire(amount);
+    }
+
+    public void release(int amount) {
+        if (amount > 0) {
+            permits.release(amount);
+        }
+    }
+
+    /**
+     * Registers a transaction against a permit acquired earlier. Returns false if it is already in flight.
+     */
+    public boolean register(Transaction transaction) {
+        return ids.add(transaction.getId());
+    }
+
+    public void complete(Transaction transaction) {
+        if (ids.remove(transaction.getId())) {
+            permits.release();
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,66 @@
+package ee.digit25.detector.process;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.pipeline")
+public class PipelineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Amount of transactions requested by a single unverified transactions call.
+     */
+    @Min(1)
+    private int fetchSize = 50;
+
+    /**
+     * Transactions fetched but not yet submitted. The service allows 10000 pending transactions per token.
+     */
+    @Min(1)
+    @Max(9_000)
+    private int maxInFlight = 1_000;
+
+    @Min(1)
+    private int validationBatchSize = 50;
+
+    @Min(1)
+    private int validationWorkers = 8;
+
+    /**
+     * Verdicts are submitted once this many have been collected ...
+     */
+    @Min(1)
+    private int verdictBatchSize = 200;
+
+    /**
+     * ... or once the oldest collected verdict has waited this long.
+     */
+    @NotNull
+    private Duration verdictFlushInterval = Duration.ofMillis(50);
+
+    @NotNull
+    private Duration emptyFetchBackoff = Duration.ofMillis(10);
+
+    @NotNull
+    private Duration errorBackoff = Duration.ofMillis(500);
+
+    /**
+     * Retries of a failed entity lookup or verdict submission before giving up on the transaction. A verdict is not
+     * retried past the deadline of its transaction either.
+     */
+    @Min(0)
+    private int maxRetries = 3;
+}
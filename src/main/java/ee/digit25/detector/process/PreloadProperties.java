@@ -0,0 +1,36 @@
+package ee.digit25.detector.process;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.preload")
+public class PreloadProperties {
+
+    private boolean enabled = true;
+
+    @Min(0)
+    private int firstPage = 0;
+
+    @Min(1)
+    private int pageSize = 1_000;
+
+    /**
+     * Upper bound of pages read per entity type and cycle, guards against an endpoint that never returns a short page.
+     */
+    @Min(1)
+    private int maxPages = 10_000;
+
+    @NotNull
+    private Duration refreshInterval = Duration.ofMinutes(5);
+}
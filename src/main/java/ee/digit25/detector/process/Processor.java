@@ -1,78 +1,86 @@
 package ee.digit25.detector.process;
 
-import ee.digit25.detector.domain.transaction.TransactionValidator;
-import ee.digit25.detector.domain.transaction.external.TransactionRequester;
-import ee.digit25.detector.domain.transaction.external.TransactionVerifier;
-import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import ee.digit25.detector.common.ExecutionMode;
+import ee.digit25.detector.common.ExecutionProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
+/**
+ * Runs the transaction pipeline: fetch -> enrich and validate -> submit verdicts. Stages run continuously
+ * and are connected by unbounded priority queues, their size is bounded by the permits of
+ * {@link InFlightTransactions}, which cap the total amount of transactions in flight.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class Processor {
 
-    private final int TRANSACTION_BATCH_SIZE = 50;
-    private final TransactionRequester requester;
-    private final TransactionValidator validator;
-    private final TransactionVerifier verifier;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(50);
-    private final ExecutorService verifyService = Executors.newFixedThreadPool(2);
+    private final TransactionFetcher fetcher;
+    private final ValidationStage validationStage;
+    private final VerdictSubmitter submitter;
+    private final InFlightTransactions inFlight;
+    private final PipelineProperties properties;
+    private final ExecutionProperties executionProperties;
+    private final List<Thread> threads = new ArrayList<>();
 
-    @Scheduled(fixedDelay = 10)
-    public void process() {
-        log.info("Starting to process a batch of transactions of size {}", TRANSACTION_BATCH_SIZE);
-
-        List<Transaction> transactions = requester.getUnverified(TRANSACTION_BATCH_SIZE);
-        
-        if (transactions.isEmpty()) {
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || !threads.isEmpty()) {
             return;
         }
 
-        ConcurrentLinkedDeque<String> legitimateTransactionsIds = new ConcurrentLinkedDeque<>();
-        ConcurrentLinkedDeque<String> fraudulentTransactionIds = new ConcurrentLinkedDeque<>();
-//        List<Transaction> legitimateTransactionIds = new ArrayList<>();
-//        List<Transaction> fraudulentTransactionIds = new ArrayList<>();
+        ExecutionMode mode = executionProperties.getMode();
+        int workers = switch (mode) {
+            case PLATFORM -> properties.getValidationWorkers();
+            case VIRTUAL -> executionProperties.getMaxOutstandingBatches();
+            case ASYNC -> 1;
+        };
 
-        // Process validation in parallel
-        List<CompletableFuture<Void>> futures = transactions.stream()
-            .map(transaction -> CompletableFuture.runAsync(() -> {
-                if (validator.isLegitimate(transaction)) {
-                    legitimateTransactionsIds.add(transaction.getId());
-                } else {
-                    fraudulentTransactionIds.add(transaction.getId());
-                }
-            }, executorService))
-            .toList();
+        log.info("Starting transaction pipeline in {} mode with {} validation workers and at most {} transactions in flight",
+                mode, workers, properties.getMaxInFlight());
 
-        // Wait for all validation tasks to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        threads.add(start(mode, "fetcher", fetcher));
+        for (int i = 0; i < workers; i++) {
+            threads.add(start(mode, "validator-" + i, validationStage));
+        }
+        threads.add(start(mode, "submitter", submitter));
+    }
 
-        CompletableFuture verify = CompletableFuture.runAsync(() -> {
-            if (!legitimateTransactionsIds.isEmpty()) {
-                verifier.verify(legitimateTransactionsIds.stream().toList());
-                log.info("Verified {} legitimate transactions", legitimateTransactionsIds.size());
+    @PreDestroy
+    public synchronized void stop() {
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-        }, verifyService);
+        }
+        threads.clear();
 
-        CompletableFuture reject = CompletableFuture.runAsync(() -> {
-            if (!fraudulentTransactionIds.isEmpty()) {
-                verifier.reject(fraudulentTransactionIds.stream().toList());
-                log.info("Rejected {} fraudulent transactions", fraudulentTransactionIds.size());
-            }
-        }, verifyService);
-        // Batch verify/reject
+        log.info("Transaction pipeline stopped with {} transactions in flight", inFlight.size());
+    }
 
-        CompletableFuture.allOf(verify, reject).join();
+    static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
+    private static Thread start(ExecutionMode mode, String name, Runnable stage) {
+        Thread thread = mode.threadFactory("pipeline-" + name + "-").newThread(stage);
+        thread.start();
+        return thread;
     }
 }
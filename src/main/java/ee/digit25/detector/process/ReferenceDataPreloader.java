@@ -0,0 +1,132 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.ExecutionProperties;
+import ee.digit25.detector.domain.account.AccountIndex;
+import ee.digit25.detector.domain.account.external.AccountRequester;
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.DeviceIndex;
+import ee.digit25.detector.domain.device.external.DeviceRequester;
+import ee.digit25.detector.domain.device.external.api.Device;
+import ee.digit25.detector.domain.person.PersonIndex;
+import ee.digit25.detector.domain.person.external.PersonRequester;
+import ee.digit25.detector.domain.person.external.api.Person;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Pages through the persons, devices and accounts endpoints on a background thread at startup and then every
+ * {@link PreloadProperties#getRefreshInterval()}. Each index is built off to the side and swapped in once complete,
+ * so validation keeps reading the previous snapshot while a refresh runs. Paging requests use the lowest request
+ * priority and only get ahead of transaction work for the permits reserved to it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataPreloader implements Runnable {
+
+    private static final int PROGRESS_PAGES = 10;
+
+    private final PersonRequester personRequester;
+    private final DeviceRequester deviceRequester;
+    private final AccountRequester accountRequester;
+    private final PersonIndex personIndex;
+    private final DeviceIndex deviceIndex;
+    private final AccountIndex accountIndex;
+    private final PreloadProperties properties;
+    private final ExecutionProperties executionProperties;
+
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || thread != null) {
+            return;
+        }
+
+        thread = executionProperties.getMode().threadFactory("preload-").newThread(this);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            preload();
+            Processor.sleep(properties.getRefreshInterval());
+        }
+    }
+
+    public void preload() {
+        long start = System.currentTimeMillis();
+
+        try {
+            PersonIndex.Builder persons = personIndex.builder();
+            load("persons", personRequester::get, persons::add);
+            persons.publish();
+
+            DeviceIndex.Builder devices = deviceIndex.builder();
+            load("devices", deviceRequester::get, devices::add);
+            devices.publish();
+
+            AccountIndex.Builder accounts = accountIndex.builder();
+            load("accounts", accountRequester::get, accounts::add);
+            accounts.publish();
+        } catch (CancellationException e) {
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Preloading reference data failed, keeping the previous indices", e);
+            return;
+        }
+
+        log.info("Preloaded {} persons ({} KiB), {} devices ({} KiB) and {} accounts ({} KiB) in {} ms",
+                personIndex.size(), personIndex.estimatedBytes() / 1024,
+                deviceIndex.size(), deviceIndex.estimatedBytes() / 1024,
+                accountIndex.size(), accountIndex.estimatedBytes() / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    private <T> void load(String name, PageRequester<T> requester, Consumer<T> consumer) {
+        int pageSize = properties.getPageSize();
+        int lastPage = properties.getFirstPage() + properties.getMaxPages();
+        int loaded = 0;
+
+        for (int page = properties.getFirstPage(); page < lastPage; page++) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Never publish a partially loaded index
+                throw new CancellationException();
+            }
+
+            List<T> entities = requester.get(page, pageSize);
+            entities.forEach(consumer);
+            loaded += entities.size();
+
+            if (entities.size() < pageSize) {
+                break;
+            }
+            if ((page - properties.getFirstPage() + 1) % PROGRESS_PAGES == 0) {
+                log.info("Preloading {}: {} loaded so far", name, loaded);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageRequester<T> {
+
+        List<T> get(int pageNumber, int pageSize);
+    }
+}
@@ -0,0 +1,58 @@
+package ee.digit25.detector.process;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties("detector.scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Zone of the service's timestamp and deadline values, which come without an offset.
+     */
+    @NotNull
+    private ZoneId zone = ZoneId.of("UTC");
+
+    /**
+     * Transactions with less slack than this left before validation can not be decided in time.
+     */
+    @NotNull
+    private Duration minSlack = Duration.ofMillis(20);
+
+    /**
+     * Verdicts with less slack than this are flushed right away instead of waiting for a full batch.
+     */
+    @NotNull
+    private Duration urgentSlack = Duration.ofMillis(250);
+
+    @NotNull
+    private ExpiredPolicy expiredPolicy = ExpiredPolicy.REJECT;
+
+    public enum ExpiredPolicy {
+
+        /**
+         * Validate as usual, spending lookups on a verdict that is likely late.
+         */
+        PROCESS,
+
+        /**
+         * Reject without any lookups, only the batched reject call is spent.
+         */
+        REJECT,
+
+        /**
+         * Drop locally without submitting a verdict at all.
+         */
+        SKIP
+    }
+}
@@ -0,0 +1,90 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.common.metrics.Timer;
+import ee.digit25.detector.domain.transaction.external.TransactionRequester;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * First pipeline stage. Keeps pulling unverified transactions for as long as there is in-flight capacity,
+ * so the next batch is already waiting while earlier ones are still being validated.
+ */
+@Slf4j
+@Component
+public class TransactionFetcher implements Runnable {
+
+    private final TransactionRequester requester;
+    private final InFlightTransactions inFlight;
+    private final ValidationStage validationStage;
+    private final PipelineProperties properties;
+    private final Timer fetchTimer;
+    private final LongAdder fetched;
+
+    public TransactionFetcher(
+            TransactionRequester requester,
+            InFlightTransactions inFlight,
+            ValidationStage validationStage,
+            PipelineProperties properties,
+            Metrics metrics
+    ) {
+        this.requester = requester;
+        this.inFlight = inFlight;
+        this.validationStage = validationStage;
+        this.properties = properties;
+        this.fetchTimer = metrics.timer("stage.fetch");
+        this.fetched = metrics.counter("transactions.fetched");
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fetch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Fetching unverified transactions failed", e);
+                Processor.sleep(properties.getErrorBackoff());
+            }
+        }
+    }
+
+    private void fetch() throws InterruptedException {
+        int size = Math.min(properties.getFetchSize(), properties.getMaxInFlight());
+        inFlight.acquire(size);
+
+        List<Transaction> transactions;
+        long start = System.nanoTime();
+        try {
+            transactions = requester.getUnverified(size);
+        } catch (RuntimeException e) {
+            inFlight.release(size);
+            throw e;
+        } finally {
+            fetchTimer.record(System.nanoTime() - start);
+        }
+
+        List<Transaction> accepted = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (accepted.size() < size && inFlight.register(transaction)) {
+                accepted.add(transaction);
+            }
+        }
+        inFlight.release(size - accepted.size());
+
+        if (accepted.isEmpty()) {
+            Processor.sleep(properties.getEmptyFetchBackoff());
+            return;
+        }
+
+        fetched.add(accepted.size());
+        log.debug("Fetched {} transactions, {} in flight", accepted.size(), inFlight.size());
+        validationStage.submit(accepted);
+    }
+}
@@ -0,0 +1,201 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.ExecutionMode;
+import ee.digit25.detector.common.ExecutionProperties;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.common.metrics.Timer;
+import ee.digit25.detector.domain.transaction.Decision;
+import ee.digit25.detector.domain.transaction.TransactionValidator;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Second pipeline stage. Each worker drains up to a validation batch of the earliest deadlines from the queue,
+ * decides it with the {@link TransactionValidator}, which resolves entities in bulk as its rules need them, and hands
+ * the verdicts over to the {@link VerdictSubmitter}. The queue itself is
+ * unbounded, its size is bounded by the permits of {@link InFlightTransactions}.
+ * <p>
+ * In {@link ExecutionMode#ASYNC} mode a single worker dispatches batches without waiting for their lookups, at most
+ * {@link ExecutionProperties#getMaxOutstandingBatches()} of them at a time.
+ */
+@Slf4j
+@Component
+public class ValidationStage implements Runnable {
+
+    private final TransactionValidator validator;
+    private final VerdictSubmitter submitter;
+    private final DeadlineScheduler scheduler;
+    private final InFlightTransactions inFlight;
+    private final PipelineProperties properties;
+    private final ExecutionMode mode;
+    private final Semaphore outstanding;
+    private final PriorityBlockingQueue<Transaction> queue;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final Timer validateTimer;
+
+    public ValidationStage(
+            TransactionValidator validator,
+            VerdictSubmitter submitter,
+            DeadlineScheduler scheduler,
+            InFlightTransactions inFlight,
+            PipelineProperties properties,
+            ExecutionProperties executionProperties,
+            Metrics metrics
+    ) {
+        this.validator = validator;
+        this.submitter = submitter;
+        this.scheduler = scheduler;
+        this.inFlight = inFlight;
+        this.properties = properties;
+        this.mode = executionProperties.getMode();
+        this.outstanding = new Semaphore(executionProperties.getMaxOutstandingBatches());
+        this.queue = new PriorityBlockingQueue<>(properties.getMaxInFlight(), DeadlineScheduler.EARLIEST_DEADLINE_FIRST);
+        this.validateTimer = metrics.timer("stage.validate");
+
+        int maxOutstanding = executionProperties.getMaxOutstandingBatches();
+        metrics.gauge("validation.queued", queue::size);
+        metrics.gauge("validation.activeBatches", () -> mode == ExecutionMode.ASYNC
+                ? maxOutstanding - outstanding.availablePermits()
+                : busyWorkers.get());
+    }
+
+    public void submit(List<Transaction> transactions) {
+        queue.addAll(transactions);
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Transaction> drained = new ArrayList<>(properties.getValidationBatchSize());
+                drained.add(queue.take());
+                queue.drainTo(drained, properties.getValidationBatchSize() - 1);
+
+                List<Transaction> batch = dropExpired(drained);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+
+                if (mode == ExecutionMode.ASYNC) {
+                    validateAsync(batch);
+                } else {
+                    validate(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<Transaction> dropExpired(List<Transaction> transactions) {
+        if (scheduler.expiredPolicy() == SchedulerProperties.ExpiredPolicy.PROCESS) {
+            return transactions;
+        }
+
+        List<Transaction> viable = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (!scheduler.cannotFinishInTime(transaction)) {
+                viable.add(transaction);
+                continue;
+            }
+
+            forget(transaction);
+            scheduler.onExpired(transaction);
+            if (scheduler.expiredPolicy() == SchedulerProperties.ExpiredPolicy.REJECT) {
+                submitter.submit(new Verdict(transaction, false, Verdict.EXPIRED));
+            } else {
+                inFlight.complete(transaction);
+            }
+        }
+
+        return viable;
+    }
+
+    private void validate(List<Transaction> batch) {
+        busyWorkers.incrementAndGet();
+        try {
+            long start = System.nanoTime();
+            List<Decision> decisions;
+            try {
+                decisions = validator.validate(batch);
+            } catch (RuntimeException e) {
+                List<Transaction> retried = retry(batch, e);
+                Processor.sleep(properties.getErrorBackoff());
+                submit(retried);
+                return;
+            }
+            validateTimer.record(System.nanoTime() - start);
+
+            emit(decisions);
+        } finally {
+            busyWorkers.decrementAndGet();
+        }
+    }
+
+    private void validateAsync(List<Transaction> batch) throws InterruptedException {
+        outstanding.acquire();
+
+        long start = System.nanoTime();
+        // Composed rather than called, so an exception thrown before the first lookup is dispatched fails the future
+        // like any other and is retried instead of escaping the dispatcher with the permit
+        CompletableFuture.completedFuture(batch).thenCompose(validator::validateAsync).whenComplete((decisions, error) -> {
+            try {
+                if (error != null) {
+                    List<Transaction> retried = retry(batch, error);
+                    CompletableFuture.runAsync(() -> submit(retried), CompletableFuture.delayedExecutor(
+                            properties.getErrorBackoff().toMillis(), TimeUnit.MILLISECONDS));
+                    return;
+                }
+
+                validateTimer.record(System.nanoTime() - start);
+                emit(decisions);
+            } finally {
+                outstanding.release();
+            }
+        });
+    }
+
+    /**
+     * Returns the transactions of a failed batch that have retries left and rejects the others, a batch that fails
+     * on every attempt would otherwise hold its in-flight permits until it expires.
+     */
+    private List<Transaction> retry(List<Transaction> batch, Throwable error) {
+        List<Transaction> retried = new ArrayList<>(batch.size());
+        for (Transaction transaction : batch) {
+            if (failures.merge(transaction.getId(), 1, Integer::sum) <= properties.getMaxRetries()) {
+                retried.add(transaction);
+            } else {
+                failures.remove(transaction.getId());
+                submitter.submit(new Verdict(transaction, false, Verdict.UNRESOLVED));
+            }
+        }
+
+        log.warn("Resolving entities for {} transactions failed, retrying {} of them", batch.size(), retried.size(), error);
+        return retried;
+    }
+
+    private void forget(Transaction transaction) {
+        if (!failures.isEmpty()) {
+            failures.remove(transaction.getId());
+        }
+    }
+
+    private void emit(List<Decision> decisions) {
+        for (Decision decision : decisions) {
+            forget(decision.getTransaction());
+            submitter.submit(new Verdict(decision));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.domain.transaction.Decision;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Verdict {
+
+    /**
+     * Reason of transactions rejected for running out of time before validation.
+     */
+    public static final String EXPIRED = "expired";
+
+    /**
+     * Reason of transactions rejected after resolving their entities failed more than
+     * {@link PipelineProperties#getMaxRetries()} times.
+     */
+    public static final String UNRESOLVED = "unresolved";
+
+    private final Transaction transaction;
+    private final boolean legitimate;
+
+    /**
+     * Name of the rule that rejected the transaction, null for legitimate ones.
+     */
+    private final String rejectedBy;
+
+    /**
+     * Submissions of this verdict that failed so far.
+     */
+    private final int failedSubmissions;
+
+    public Verdict(Transaction transaction, boolean legitimate, String rejectedBy) {
+        this(transaction, legitimate, rejectedBy, 0);
+    }
+
+    public Verdict(Decision decision) {
+        this(decision.getTransaction(), decision.isLegitimate(), decision.getRejectedBy());
+    }
+
+    public Verdict failed() {
+        return new Verdict(transaction, legitimate, rejectedBy, failedSubmissions + 1);
+    }
+}
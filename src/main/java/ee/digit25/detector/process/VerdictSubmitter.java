@@ -0,0 +1,263 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.ExecutionMode;
+import ee.digit25.detector.common.ExecutionProperties;
+import ee.digit25.detector.common.MinorUnits;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.common.metrics.Timer;
+import ee.digit25.detector.domain.account.AccountLedger;
+import ee.digit25.detector.domain.transaction.EntityCaches;
+import ee.digit25.detector.domain.transaction.external.TransactionVerifier;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Last pipeline stage. Collects verdicts and submits them with the bulk verify / reject calls once either
+ * {@link PipelineProperties#getVerdictBatchSize()} verdicts are waiting, the oldest one has waited
+ * {@link PipelineProperties#getVerdictFlushInterval()} or one of them is about to run out of slack.
+ * Verdicts closest to their deadline are submitted first.
+ */
+@Slf4j
+@Component
+public class VerdictSubmitter implements Runnable {
+
+    private final TransactionVerifier verifier;
+    private final InFlightTransactions inFlight;
+    private final EntityCaches caches;
+    private final AccountLedger ledger;
+    private final DeadlineScheduler scheduler;
+    private final PipelineProperties properties;
+    private final ExecutionMode mode;
+    private final PriorityBlockingQueue<Verdict> queue;
+    private final ExecutorService verifyService;
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Timer verifyTimer;
+    private final Timer rejectTimer;
+    private final Timer lagTimer;
+    private final LongAdder legitimateCount;
+    private final LongAdder fraudulentCount;
+    private final LongAdder abandoned;
+
+    public VerdictSubmitter(
+            TransactionVerifier verifier,
+            InFlightTransactions inFlight,
+            EntityCaches caches,
+            AccountLedger ledger,
+            DeadlineScheduler scheduler,
+            PipelineProperties properties,
+            ExecutionProperties executionProperties,
+            Metrics metrics
+    ) {
+        this.verifier = verifier;
+        this.inFlight = inFlight;
+        this.caches = caches;
+        this.ledger = ledger;
+        this.scheduler = scheduler;
+        this.properties = properties;
+        this.mode = executionProperties.getMode();
+        this.verifyService = mode.executor("verdict-", 2);
+        this.queue = new PriorityBlockingQueue<>(
+                properties.getMaxInFlight(),
+                Comparator.comparing(Verdict::getTransaction, DeadlineScheduler.EARLIEST_DEADLINE_FIRST)
+        );
+        this.verifyTimer = metrics.timer("stage.verify");
+        this.rejectTimer = metrics.timer("stage.reject");
+        this.lagTimer = metrics.timer("verdict.lag");
+        this.legitimateCount = metrics.counter("verdicts.legitimate");
+        this.fraudulentCount = metrics.counter("verdicts.fraudulent");
+        this.abandoned = metrics.counter("verdicts.abandoned");
+
+        metrics.gauge("verdict.queued", queue::size);
+        metrics.gauge("verdict.submitting", submitting::get);
+    }
+
+    public void submit(Verdict verdict) {
+        queue.add(verdict);
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                flush(collect());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verifyService.shutdown();
+    }
+
+    private List<Verdict> collect() throws InterruptedException {
+        int batchSize = properties.getVerdictBatchSize();
+        List<Verdict> batch = new ArrayList<>(batchSize);
+        batch.add(queue.take());
+
+        long flushAt = System.nanoTime() + properties.getVerdictFlushInterval().toNanos();
+        int checked = 0;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            for (; checked < batch.size(); checked++) {
+                flushAt = Math.min(flushAt, urgentAt(batch.get(checked)));
+            }
+
+            long remaining = flushAt - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+
+            Verdict next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        return batch;
+    }
+
+    private long urgentAt(Verdict verdict) {
+        long delay = scheduler.flushDelayNanos(verdict.getTransaction());
+        return delay == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + delay;
+    }
+
+    private void flush(List<Verdict> batch) {
+        List<Verdict> legitimate = new ArrayList<>();
+        List<Verdict> fraudulent = new ArrayList<>();
+        Map<String, Integer> reasons = new HashMap<>();
+        for (Verdict verdict : batch) {
+            (verdict.isLegitimate() ? legitimate : fraudulent).add(verdict);
+            if (!verdict.isLegitimate()) {
+                reasons.merge(verdict.getRejectedBy(), 1, Integer::sum);
+            }
+        }
+
+        if (!legitimate.isEmpty()) {
+            verify(ids(legitimate)).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    retry(legitimate, error);
+                    return;
+                }
+
+                // Verified transactions move money, so cached balances of both sides are stale now. Invalidated
+                // before settling so no reader sees the settled ledger next to a cached pre-verify balance
+                caches.invalidateAccounts(accounts(legitimate));
+                // Legitimate verdicts hold a ledger reservation, settled once submitted
+                for (Verdict verdict : legitimate) {
+                    Transaction transaction = verdict.getTransaction();
+                    ledger.settle(transaction.getSenderAccount(), MinorUnits.ceil(transaction.getAmount()));
+                }
+                legitimateCount.add(legitimate.size());
+                log.debug("Verified {} legitimate transactions", legitimate.size());
+                complete(legitimate);
+            });
+        }
+
+        if (!fraudulent.isEmpty()) {
+            reject(ids(fraudulent)).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    retry(fraudulent, error);
+                    return;
+                }
+
+                fraudulentCount.add(fraudulent.size());
+                log.debug("Rejected {} fraudulent transactions by rule {}", fraudulent.size(), reasons);
+                complete(fraudulent);
+            });
+        }
+    }
+
+    /**
+     * Queues failed verdicts again after {@link PipelineProperties#getErrorBackoff()} for as long as they have retries
+     * left and their deadline is not reached by then, a throttled submission is not a lost verdict.
+     */
+    private void retry(List<Verdict> verdicts, Throwable error) {
+        long backoff = properties.getErrorBackoff().toMillis();
+        List<Verdict> retried = new ArrayList<>(verdicts.size());
+        for (Verdict verdict : verdicts) {
+            if (verdict.getFailedSubmissions() < properties.getMaxRetries()
+                    && scheduler.slackMillis(verdict.getTransaction()) > backoff) {
+                retried.add(verdict.failed());
+            } else {
+                abandon(verdict);
+            }
+        }
+
+        log.warn("Submitting {} verdicts failed, retrying {} of them", verdicts.size(), retried.size(), error);
+        if (!retried.isEmpty()) {
+            CompletableFuture.runAsync(() -> queue.addAll(retried),
+                    CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void abandon(Verdict verdict) {
+        Transaction transaction = verdict.getTransaction();
+        if (verdict.isLegitimate()) {
+            ledger.cancel(transaction.getSenderAccount(), MinorUnits.ceil(transaction.getAmount()));
+        }
+        abandoned.increment();
+        inFlight.complete(transaction);
+    }
+
+    private CompletableFuture<Void> verify(List<String> ids) {
+        return timed(verifyTimer, mode == ExecutionMode.ASYNC
+                ? () -> verifier.verifyAsync(ids)
+                : () -> CompletableFuture.runAsync(() -> verifier.verify(ids), verifyService));
+    }
+
+    private CompletableFuture<Void> reject(List<String> ids) {
+        return timed(rejectTimer, mode == ExecutionMode.ASYNC
+                ? () -> verifier.rejectAsync(ids)
+                : () -> CompletableFuture.runAsync(() -> verifier.reject(ids), verifyService));
+    }
+
+    private CompletableFuture<Void> timed(Timer timer, Supplier<CompletableFuture<Void>> submission) {
+        long start = System.nanoTime();
+        submitting.incrementAndGet();
+        return submission.get().whenComplete((ignored, error) -> {
+            submitting.decrementAndGet();
+            timer.record(System.nanoTime() - start);
+        });
+    }
+
+    private void complete(List<Verdict> verdicts) {
+        for (Verdict verdict : verdicts) {
+            Transaction transaction = verdict.getTransaction();
+            scheduler.onSubmitted(transaction);
+            lagTimer.recordMillis(scheduler.ageMillis(transaction));
+            inFlight.complete(transaction);
+        }
+    }
+
+    private static List<String> ids(List<Verdict> verdicts) {
+        return verdicts.stream().map(verdict -> verdict.getTransaction().getId()).toList();
+    }
+
+    private static List<String> accounts(List<Verdict> verdicts) {
+        List<String> accounts = new ArrayList<>(verdicts.size() * 2);
+        for (Verdict verdict : verdicts) {
+            Transaction transaction = verdict.getTransaction();
+            accounts.add(transaction.getSenderAccount());
+            accounts.add(transaction.getRecipientAccount());
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,132 @@
+package ee.digit25.detector.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void loadsOnlyMissingKeys() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+        AtomicInteger loaded = new AtomicInteger();
+        Function<List<String>, Map<String, String>> loader = keys -> {
+            loaded.addAndGet(keys.size());
+            return keys.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase));
+        };
+
+        cache.getAll(List.of("a", "b"), loader);
+        Map<String, String> result = cache.getAll(List.of("a", "b", "c"), loader);
+
+        assertEquals(Map.of("a", "A", "b", "B", "c", "C"), result);
+        assertEquals(3, loaded.get());
+        assertEquals(2, cache.stats().getHits());
+        assertEquals(3, cache.stats().getMisses());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+        AtomicInteger loaded = new AtomicInteger();
+
+        cache.get("a", key -> key + loaded.incrementAndGet());
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertEquals("a2", cache.get("a", key -> key + loaded.incrementAndGet()));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 2, Duration.ofSeconds(1), now::get);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a", key -> "reloaded");
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals("A", cache.get("a", key -> "reloaded"));
+    }
+
+    @Test
+    void coalescesConcurrentMissesOnSameKey() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+        CompletableFuture<Map<String, String>> response = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        Function<List<String>, CompletableFuture<Map<String, String>>> loader = keys -> {
+            loads.incrementAndGet();
+            return response;
+        };
+
+        CompletableFuture<Map<String, String>> first = cache.getAllAsync(List.of("a"), loader);
+        CompletableFuture<Map<String, String>> second = cache.getAllAsync(List.of("a"), loader);
+        assertFalse(second.isDone());
+
+        response.complete(Map.of("a", "A"));
+
+        assertEquals(Map.of("a", "A"), first.join());
+        assertEquals(Map.of("a", "A"), second.join());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getCoalesced());
+    }
+
+    @Test
+    void doesNotCacheAbsentKeys() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+
+        Map<String, String> result = cache.getAll(List.of("a"), keys -> Map.of());
+
+        assertTrue(result.isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void dropsLoadStartedBeforeInvalidation() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+        CompletableFuture<Map<String, String>> stale = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<Map<String, String>> waiting = cache.getAllAsync(List.of("a"), keys -> {
+            loads.incrementAndGet();
+            return stale;
+        });
+        cache.invalidateAll(List.of("a"));
+        CompletableFuture<Map<String, String>> fresh = cache.getAllAsync(List.of("a"), keys -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(Map.of("a", "fresh"));
+        });
+        stale.complete(Map.of("a", "stale"));
+
+        assertEquals(Map.of("a", "stale"), waiting.join());
+        assertEquals(Map.of("a", "fresh"), fresh.join());
+        assertEquals(2, loads.get());
+        assertEquals("fresh", cache.get("a", key -> "reloaded"));
+    }
+
+    @Test
+    void doesNotCacheResultOfInvalidatedLoad() {
+        EntityCache<String, String> cache = new EntityCache<>("test", 10, Duration.ofSeconds(1), now::get);
+        CompletableFuture<Map<String, String>> stale = new CompletableFuture<>();
+
+        cache.getAllAsync(List.of("a"), keys -> stale);
+        cache.invalidate("a");
+        stale.complete(Map.of("a", "stale"));
+
+        assertEquals(0, cache.size());
+        assertEquals("reloaded", cache.get("a", key -> "reloaded"));
+    }
+}
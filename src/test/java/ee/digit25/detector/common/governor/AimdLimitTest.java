@@ -0,0 +1,78 @@
+package ee.digit25.detector.common.governor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AimdLimitTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long COOLDOWN = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void growsByOnePerLimitSizedWindowOfFastCalls() {
+        AimdLimit aimd = new AimdLimit(10, 5, 50, 0.9, THRESHOLD, COOLDOWN, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            aimd.onSample(FAST, false, 10);
+        }
+
+        assertEquals(10, aimd.getLimit());
+        assertEquals(11, aimd.onSample(FAST, false, 10));
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AimdLimit aimd = new AimdLimit(10, 5, 50, 0.9, THRESHOLD, COOLDOWN, now::get);
+
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(FAST, false, 4);
+        }
+
+        assertEquals(10, aimd.getLimit());
+    }
+
+    @Test
+    void shrinksOnFailureAndSlowCalls() {
+        AimdLimit aimd = new AimdLimit(20, 5, 50, 0.5, THRESHOLD, COOLDOWN, now::get);
+
+        assertEquals(10, aimd.onSample(FAST, true, 20));
+
+        now.addAndGet(COOLDOWN);
+        assertEquals(5, aimd.onSample(THRESHOLD + 1, false, 10));
+    }
+
+    @Test
+    void shrinksAtMostOncePerCooldown() {
+        AimdLimit aimd = new AimdLimit(20, 5, 50, 0.5, THRESHOLD, COOLDOWN, now::get);
+
+        aimd.onSample(FAST, true, 20);
+        now.addAndGet(COOLDOWN - 1);
+        assertEquals(10, aimd.onSample(FAST, true, 20));
+
+        now.addAndGet(1);
+        assertEquals(5, aimd.onSample(FAST, true, 20));
+    }
+
+    @Test
+    void staysWithinBounds() {
+        AimdLimit aimd = new AimdLimit(49, 5, 50, 0.1, THRESHOLD, COOLDOWN, now::get);
+
+        for (int i = 0; i < 1000; i++) {
+            aimd.onSample(FAST, false, 50);
+        }
+        assertEquals(50, aimd.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(COOLDOWN);
+            aimd.onSample(FAST, true, 50);
+        }
+        assertEquals(5, aimd.getLimit());
+    }
+}
@@ -0,0 +1,96 @@
+package ee.digit25.detector.common.governor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void grantsWaitingHigherPriorityFirst() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        ConcurrencyLimiter.Permit held = limiter.acquire(RequestPriority.ENRICHMENT);
+
+        CompletableFuture<ConcurrencyLimiter.Permit> enrichment = limiter.acquireAsync(RequestPriority.ENRICHMENT);
+        CompletableFuture<ConcurrencyLimiter.Permit> verdict = limiter.acquireAsync(RequestPriority.VERDICT);
+        assertEquals(2, limiter.getWaiting());
+
+        limiter.release(held);
+
+        assertTrue(verdict.isDone());
+        assertFalse(enrichment.isDone());
+
+        limiter.release(verdict.join());
+
+        assertTrue(enrichment.isDone());
+        assertEquals(1, limiter.getInUse());
+    }
+
+    @Test
+    void raisingLimitAdmitsWaiters() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        limiter.acquire(RequestPriority.FETCH);
+        CompletableFuture<ConcurrencyLimiter.Permit> waiting = limiter.acquireAsync(RequestPriority.FETCH);
+
+        limiter.setLimit(2);
+
+        assertTrue(waiting.isDone());
+        assertEquals(2, limiter.getInUse());
+    }
+
+    @Test
+    void skipsCancelledWaiters() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        ConcurrencyLimiter.Permit held = limiter.acquire(RequestPriority.FETCH);
+        CompletableFuture<ConcurrencyLimiter.Permit> cancelled = limiter.acquireAsync(RequestPriority.VERDICT);
+        CompletableFuture<ConcurrencyLimiter.Permit> waiting = limiter.acquireAsync(RequestPriority.FETCH);
+
+        cancelled.cancel(false);
+        limiter.release(held);
+
+        assertTrue(waiting.isDone());
+        assertEquals(1, limiter.getInUse());
+    }
+
+    @Test
+    void grantsReservedShareToBackgroundAheadOfOtherWaiters() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1);
+        ConcurrencyLimiter.Permit first = limiter.acquire(RequestPriority.ENRICHMENT);
+        ConcurrencyLimiter.Permit second = limiter.acquire(RequestPriority.ENRICHMENT);
+
+        CompletableFuture<ConcurrencyLimiter.Permit> enrichment = limiter.acquireAsync(RequestPriority.ENRICHMENT);
+        CompletableFuture<ConcurrencyLimiter.Permit> background = limiter.acquireAsync(RequestPriority.BACKGROUND);
+        CompletableFuture<ConcurrencyLimiter.Permit> moreBackground = limiter.acquireAsync(RequestPriority.BACKGROUND);
+
+        limiter.release(first);
+
+        assertTrue(background.isDone());
+        assertFalse(enrichment.isDone());
+
+        limiter.release(second);
+
+        assertTrue(enrichment.isDone());
+        assertFalse(moreBackground.isDone());
+
+        limiter.release(background.join());
+
+        assertTrue(moreBackground.isDone());
+    }
+
+    @Test
+    void backgroundWaitsWithoutReservedShare() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        ConcurrencyLimiter.Permit held = limiter.acquire(RequestPriority.ENRICHMENT);
+        CompletableFuture<ConcurrencyLimiter.Permit> background = limiter.acquireAsync(RequestPriority.BACKGROUND);
+        CompletableFuture<ConcurrencyLimiter.Permit> enrichment = limiter.acquireAsync(RequestPriority.ENRICHMENT);
+
+        limiter.release(held);
+
+        assertTrue(enrichment.isDone());
+        assertFalse(background.isDone());
+    }
+}
@@ -0,0 +1,40 @@
+package ee.digit25.detector.common.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedKeysTest {
+
+    @Test
+    void positionIsTheIdOfAKey() {
+        SortedKeys keys = SortedKeys.ofSorted(List.of("a", "c", "e"));
+
+        assertEquals(3, keys.size());
+        assertEquals(0, keys.indexOf("a"));
+        assertEquals(2, keys.indexOf("e"));
+        assertEquals("c", keys.get(keys.indexOf("c")));
+    }
+
+    @Test
+    void missingKeysAreMinusOne() {
+        SortedKeys keys = SortedKeys.ofSorted(List.of("a", "c", "e"));
+
+        assertEquals(-1, keys.indexOf("b"));
+        assertEquals(-1, keys.indexOf("f"));
+        assertEquals(-1, keys.indexOf(null));
+        assertEquals(-1, SortedKeys.EMPTY.indexOf("a"));
+    }
+
+    @Test
+    void estimateGrowsWithTheKeys() {
+        SortedKeys small = SortedKeys.ofSorted(List.of("a"));
+        SortedKeys large = SortedKeys.ofSorted(List.of("a", "bbbbbbbbbb"));
+
+        assertTrue(SortedKeys.EMPTY.estimatedBytes() < small.estimatedBytes());
+        assertTrue(small.estimatedBytes() < large.estimatedBytes());
+    }
+}
@@ -0,0 +1,25 @@
+package ee.digit25.detector.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsReporterTest {
+
+    @Test
+    void resetsIntervalGaugesOnlyAfterReporting() {
+        Metrics metrics = new Metrics();
+        AtomicLong max = new AtomicLong(42);
+        metrics.gauge("max", max::get);
+        metrics.onInterval(() -> max.set(0));
+
+        assertEquals(42, metrics.gauges().get("max").getAsLong());
+        assertEquals(42, metrics.gauges().get("max").getAsLong());
+
+        new MetricsReporter(metrics).report();
+
+        assertEquals(0, metrics.gauges().get("max").getAsLong());
+    }
+}
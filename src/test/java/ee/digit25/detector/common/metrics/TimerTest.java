@@ -0,0 +1,36 @@
+package ee.digit25.detector.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerTest {
+
+    @Test
+    void bucketsAreWithinAQuarterOfTheValue() {
+        for (long micros = 0; micros < 10_000_000; micros += 997) {
+            long lower = Timer.lowerBound(Timer.bucket(micros));
+            assertTrue(lower <= micros && micros - lower <= micros / 4, "bucket of " + micros);
+        }
+    }
+
+    @Test
+    void snapshotReportsPercentilesAndResets() {
+        Timer timer = new Timer();
+        for (int i = 1; i <= 100; i++) {
+            timer.recordMillis(i);
+        }
+
+        Timer.Snapshot snapshot = timer.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertTrue(snapshot.p50() >= 40_000 && snapshot.p50() <= 50_000, "p50 " + snapshot.p50());
+        assertTrue(snapshot.p99() >= 75_000 && snapshot.p99() <= 99_000, "p99 " + snapshot.p99());
+        assertTrue(snapshot.max() >= TimeUnit.MILLISECONDS.toMicros(75), "max " + snapshot.max());
+        assertEquals(0, timer.snapshot().count());
+        assertEquals(100, timer.count());
+    }
+}
@@ -0,0 +1,55 @@
+package ee.digit25.detector.domain.account;
+
+import ee.digit25.detector.domain.account.external.api.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountIndexTest {
+
+    private final AccountIndex index = new AccountIndex();
+
+    @Test
+    void validOnlyWhenOpenAndOwnedByThePerson() {
+        AccountIndex.Builder builder = index.builder();
+        builder.add(new Account("EE01", "alice", false, BigDecimal.TEN));
+        builder.add(new Account("EE02", "alice", true, BigDecimal.TEN));
+        builder.add(new Account("EE03", "bob", null, null));
+        builder.add(new Account("EE04", null, false, BigDecimal.TEN));
+        builder.publish();
+
+        assertEquals(3, index.size());
+        assertTrue(index.isOpenAndOwnedBy("EE01", "alice"));
+        assertFalse(index.isOpenAndOwnedBy("EE01", "bob"));
+        assertFalse(index.isOpenAndOwnedBy("EE02", "alice"));
+        assertTrue(index.isOpenAndOwnedBy("EE03", "bob"));
+        assertNull(index.isOpenAndOwnedBy("EE04", "alice"));
+    }
+
+    @Test
+    void sharesOwnersBetweenAccounts() {
+        AccountIndex.Builder single = index.builder();
+        single.add(new Account("EE01", "alice", false, BigDecimal.TEN));
+        single.publish();
+        long oneAccount = index.estimatedBytes();
+
+        AccountIndex.Builder shared = index.builder();
+        shared.add(new Account("EE01", "alice", false, BigDecimal.TEN));
+        shared.add(new Account("EE02", "alice", false, BigDecimal.TEN));
+        shared.publish();
+        long sameOwner = index.estimatedBytes();
+
+        AccountIndex.Builder distinct = index.builder();
+        distinct.add(new Account("EE01", "alice", false, BigDecimal.TEN));
+        distinct.add(new Account("EE02", "carol", false, BigDecimal.TEN));
+        distinct.publish();
+
+        assertTrue(sameOwner > oneAccount);
+        assertTrue(index.estimatedBytes() > sameOwner);
+    }
+}
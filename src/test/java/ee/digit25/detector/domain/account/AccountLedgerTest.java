@@ -0,0 +1,137 @@
+package ee.digit25.detector.domain.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountLedgerTest {
+
+    private final AccountLedger ledger = new AccountLedger(properties());
+
+    @Test
+    void rejectsReservationsBeyondBalance() {
+        ledger.reconcile("EE1", 1_000, System.nanoTime());
+
+        assertTrue(ledger.tryReserve("EE1", 600));
+        assertFalse(ledger.tryReserve("EE1", 600));
+        assertEquals(400, ledger.available("EE1"));
+    }
+
+    @Test
+    void neverOverdrawsUnderConcurrentReservations() throws InterruptedException {
+        ledger.reconcile("EE1", 10_000, System.nanoTime());
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1_000; i++) {
+            executor.execute(() -> {
+                if (ledger.tryReserve("EE1", 30)) {
+                    reserved.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(333, reserved.get());
+        assertEquals(10, ledger.available("EE1"));
+    }
+
+    @Test
+    void reconcileKeepsPendingReservations() {
+        ledger.reconcile("EE1", 1_000, System.nanoTime());
+        ledger.tryReserve("EE1", 300);
+
+        ledger.reconcile("EE1", 2_000, System.nanoTime());
+
+        assertEquals(1_700, ledger.available("EE1"));
+    }
+
+    @Test
+    void cancelGivesAmountBack() {
+        ledger.reconcile("EE1", 1_000, System.nanoTime());
+        ledger.tryReserve("EE1", 300);
+
+        ledger.cancel("EE1", 300);
+
+        assertEquals(1_000, ledger.available("EE1"));
+    }
+
+    @Test
+    void discountsSettlementsAfterTheBalanceWasObserved() {
+        long observedAt = System.nanoTime();
+        ledger.reconcile("EE1", 1_000, observedAt);
+        ledger.tryReserve("EE1", 300);
+        ledger.settle("EE1", 300);
+
+        ledger.reconcile("EE1", 1_000, observedAt);
+
+        assertEquals(700, ledger.available("EE1"));
+    }
+
+    @Test
+    void keepsReconcilingWhenASettlementLandsDuringEveryFetch() {
+        long serverBalance = 1_000;
+        ledger.reconcile("EE1", serverBalance, System.nanoTime());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ledger.tryReserve("EE1", 100));
+            // Credited from elsewhere, then fetched while our verdict settles
+            serverBalance += 500;
+            long observedAt = System.nanoTime();
+            long fetched = serverBalance;
+            ledger.settle("EE1", 100);
+            serverBalance -= 100;
+
+            ledger.reconcile("EE1", fetched, observedAt);
+
+            assertEquals(serverBalance, ledger.available("EE1"));
+            assertFalse(ledger.needsReconcile("EE1"));
+        }
+    }
+
+    @Test
+    void countsSettlementsBeforeTheFetchAsIncluded() {
+        ledger.reconcile("EE1", 1_000, System.nanoTime());
+        ledger.tryReserve("EE1", 300);
+        ledger.settle("EE1", 300);
+
+        ledger.reconcile("EE1", 700, System.nanoTime());
+
+        assertEquals(700, ledger.available("EE1"));
+    }
+
+    @Test
+    void ignoresBalancesObservedBeyondRetention() {
+        LedgerProperties properties = properties();
+        properties.setSettlementRetention(Duration.ofMillis(10));
+        AccountLedger ledger = new AccountLedger(properties);
+        ledger.reconcile("EE1", 1_000, System.nanoTime());
+
+        ledger.reconcile("EE1", 5_000, System.nanoTime() - Duration.ofSeconds(1).toNanos());
+
+        assertEquals(1_000, ledger.available("EE1"));
+    }
+
+    @Test
+    void unknownAccountsNeedReconcile() {
+        assertTrue(ledger.needsReconcile("EE1"));
+        assertFalse(ledger.tryReserve("EE1", 1));
+    }
+
+    private static LedgerProperties properties() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setReconcileInterval(Duration.ofMinutes(1));
+        properties.setMinMargin(BigDecimal.ONE);
+        return properties;
+    }
+}
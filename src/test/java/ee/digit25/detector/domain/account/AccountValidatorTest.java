@@ -0,0 +1,55 @@
+package ee.digit25.detector.domain.account;
+
+import ee.digit25.detector.domain.account.external.api.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountValidatorTest {
+
+    private final AccountIndex index = new AccountIndex();
+    private final AccountLedger ledger = new AccountLedger(ledgerProperties());
+    private final AccountValidator validator = new AccountValidator(index, ledger);
+
+    AccountValidatorTest() {
+        AccountIndex.Builder builder = index.builder();
+        builder.add(new Account("EE01", "alice", false, BigDecimal.TEN));
+        builder.publish();
+        ledger.reconcile("EE01", 10_00, System.nanoTime());
+    }
+
+    @Test
+    void decidesSenderFromTheResolvedAccountOverTheIndex() {
+        Account closedSince = new Account("EE01", "alice", true, BigDecimal.TEN);
+
+        assertFalse(validator.reserveSenderAccount("EE01", closedSince, BigDecimal.ONE, "alice"));
+        assertEquals(10_00, ledger.available("EE01"));
+    }
+
+    @Test
+    void decidesRecipientFromTheResolvedAccountOverTheIndex() {
+        Account closedSince = new Account("EE01", "alice", true, BigDecimal.TEN);
+
+        assertFalse(validator.isValidRecipientAccount("EE01", closedSince, "alice"));
+        assertTrue(validator.isValidRecipientAccount("EE01", null, "alice"));
+    }
+
+    @Test
+    void fallsBackToTheIndexWhenNotResolved() {
+        assertTrue(validator.reserveSenderAccount("EE01", null, BigDecimal.ONE, "alice"));
+        assertFalse(validator.reserveSenderAccount("EE01", null, BigDecimal.ONE, "bob"));
+        assertEquals(9_00, ledger.available("EE01"));
+    }
+
+    private static LedgerProperties ledgerProperties() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setReconcileInterval(Duration.ofMinutes(1));
+        properties.setMinMargin(BigDecimal.ONE);
+        return properties;
+    }
+}
@@ -0,0 +1,37 @@
+package ee.digit25.detector.domain.device;
+
+import ee.digit25.detector.domain.device.external.api.Device;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceIndexTest {
+
+    private final DeviceIndex index = new DeviceIndex();
+
+    @Test
+    void invalidOnlyWhenBlacklisted() {
+        DeviceIndex.Builder builder = index.builder();
+        builder.add(device("00:01", false));
+        builder.add(device("00:02", true));
+        builder.add(device("00:03", null));
+        builder.add(device(null, true));
+        builder.publish();
+
+        assertEquals(3, index.size());
+        assertTrue(index.isValid("00:01"));
+        assertFalse(index.isValid("00:02"));
+        assertTrue(index.isValid("00:03"));
+        assertNull(index.isValid("00:04"));
+    }
+
+    private static Device device(String mac, Boolean blacklisted) {
+        Device device = new Device();
+        device.setMac(mac);
+        device.setIsBlacklisted(blacklisted);
+        return device;
+    }
+}
@@ -0,0 +1,54 @@
+package ee.digit25.detector.domain.person;
+
+import ee.digit25.detector.domain.person.external.api.Person;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersonIndexTest {
+
+    private final PersonIndex index = new PersonIndex();
+
+    @Test
+    void validOnlyWithContractAndNoWarrantOrBlacklisting() {
+        PersonIndex.Builder builder = index.builder();
+        builder.add(person("valid", false, true, false));
+        builder.add(person("warrant", true, true, false));
+        builder.add(person("no-contract", false, false, false));
+        builder.add(person("blacklisted", false, true, true));
+        builder.add(new Person("Nobody", null, null, false, true, false));
+        builder.publish();
+
+        assertEquals(4, index.size());
+        assertTrue(index.isValid("valid"));
+        assertFalse(index.isValid("warrant"));
+        assertFalse(index.isValid("no-contract"));
+        assertFalse(index.isValid("blacklisted"));
+        assertNull(index.isValid("unknown"));
+    }
+
+    @Test
+    void keepsServingThePreviousSnapshotUntilPublished() {
+        PersonIndex.Builder first = index.builder();
+        first.add(person("valid", false, true, false));
+        first.publish();
+
+        PersonIndex.Builder second = index.builder();
+        second.add(person("other", false, true, false));
+
+        assertTrue(index.contains("valid"));
+        assertFalse(index.contains("other"));
+
+        second.publish();
+
+        assertFalse(index.contains("valid"));
+        assertTrue(index.contains("other"));
+    }
+
+    private static Person person(String code, boolean warrant, boolean contract, boolean blacklisted) {
+        return new Person("First", "Last", code, warrant, contract, blacklisted);
+    }
+}
@@ -0,0 +1,118 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.common.cache.CacheProperties;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.account.AccountIndex;
+import ee.digit25.detector.domain.account.AccountLedger;
+import ee.digit25.detector.domain.account.LedgerProperties;
+import ee.digit25.detector.domain.account.external.AccountRequester;
+import ee.digit25.detector.domain.account.external.api.Account;
+import ee.digit25.detector.domain.device.DeviceIndex;
+import ee.digit25.detector.domain.person.PersonIndex;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionEntityResolverTest {
+
+    private static final Set<EntityType> ACCOUNTS = Set.of(EntityType.ACCOUNT);
+
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+    private final List<List<String>> requested = new ArrayList<>();
+    private final AccountLedger ledger = new AccountLedger(ledgerProperties());
+    private Runnable duringRequest = () -> { };
+
+    private final AccountRequester accountRequester = new AccountRequester(null, null, null) {
+
+        @Override
+        public List<Account> get(List<String> numbers) {
+            requested.add(List.copyOf(numbers));
+            List<Account> accounts = numbers.stream()
+                    .map(number -> new Account(number, "owner", false, BigDecimal.valueOf(balances.get(number), 2)))
+                    .toList();
+            duringRequest.run();
+            return accounts;
+        }
+
+        @Override
+        public CompletableFuture<List<Account>> getAsync(List<String> numbers) {
+            return CompletableFuture.completedFuture(get(numbers));
+        }
+    };
+
+    private final TransactionEntityResolver resolver = new TransactionEntityResolver(
+            null, null, accountRequester, new PersonIndex(), new DeviceIndex(), new AccountIndex(), ledger,
+            new EntityCaches(new CacheProperties(), new Metrics()), new ResolverProperties());
+
+    @Test
+    void reconcilesSenderFromAFetchThatBypassesTheCache() {
+        balances.put("EE01", 100_00L);
+        balances.put("EE02", 100_00L);
+        resolver.resolve(List.of(transaction("EE01", "EE02")), ACCOUNTS);
+        ledger.tryReserve("EE01", 60_00);
+
+        // Cached as a recipient before the settlement below
+        resolver.resolve(List.of(transaction("EE02", "EE01")), ACCOUNTS);
+        ledger.settle("EE01", 60_00);
+        balances.put("EE01", 40_00L);
+
+        ResolvedEntities resolved = resolver.resolve(List.of(transaction("EE01", "EE02")), ACCOUNTS);
+
+        assertEquals(40_00, ledger.available("EE01"));
+        assertEquals(new BigDecimal("40.00"), resolved.account("EE01").getBalance());
+        assertEquals(List.of("EE01"), requested.get(requested.size() - 1));
+    }
+
+    @Test
+    void reconcilesSenderFromAFetchThatBypassesTheCacheAsync() {
+        balances.put("EE01", 100_00L);
+        balances.put("EE02", 100_00L);
+        resolver.resolveAsync(List.of(transaction("EE01", "EE02")), ACCOUNTS).join();
+        ledger.tryReserve("EE01", 60_00);
+
+        resolver.resolveAsync(List.of(transaction("EE02", "EE01")), ACCOUNTS).join();
+        ledger.settle("EE01", 60_00);
+        balances.put("EE01", 40_00L);
+
+        resolver.resolveAsync(List.of(transaction("EE01", "EE02")), ACCOUNTS).join();
+
+        assertEquals(40_00, ledger.available("EE01"));
+    }
+
+    @Test
+    void discountsSettlementLandingDuringTheSenderFetch() {
+        balances.put("EE01", 100_00L);
+        resolver.resolve(List.of(transaction("EE01", null)), ACCOUNTS);
+        ledger.tryReserve("EE01", 60_00);
+
+        // The server answers with the balance from before the verify that settles while the request is out
+        duringRequest = () -> ledger.settle("EE01", 60_00);
+        resolver.resolve(List.of(transaction("EE01", null)), ACCOUNTS);
+
+        assertEquals(40_00, ledger.available("EE01"));
+    }
+
+    private static Transaction transaction(String senderAccount, String recipientAccount) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Transaction("tx", new BigDecimal("1.00"), "sender", "recipient", senderAccount, recipientAccount,
+                "00:00", now, now.plusSeconds(10));
+    }
+
+    private static LedgerProperties ledgerProperties() {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setReconcileInterval(Duration.ofMinutes(1));
+        properties.setMinMargin(new BigDecimal("1000000"));
+        return properties;
+    }
+}
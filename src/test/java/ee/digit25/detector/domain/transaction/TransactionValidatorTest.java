@@ -0,0 +1,149 @@
+package ee.digit25.detector.domain.transaction;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import ee.digit25.detector.domain.transaction.rule.RuleProperties;
+import ee.digit25.detector.domain.transaction.rule.TransactionRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionValidatorTest {
+
+    private final List<String> evaluated = new ArrayList<>();
+    private final List<Set<EntityType>> resolvedTypes = new ArrayList<>();
+    private final List<List<String>> resolvedIds = new ArrayList<>();
+
+    private final TransactionEntityResolver resolver = new TransactionEntityResolver(
+            null, null, null, null, null, null, null, null, null) {
+
+        @Override
+        public ResolvedEntities resolve(List<Transaction> transactions, Set<EntityType> types) {
+            resolvedTypes.add(types);
+            resolvedIds.add(transactions.stream().map(Transaction::getId).toList());
+            return ResolvedEntities.NONE;
+        }
+    };
+
+    @Test
+    void evaluatesCheapestFirstAndReservesLast() {
+        TransactionValidator validator = validator(new RuleProperties(),
+                rule("reserve", 1, Set.of(EntityType.ACCOUNT), true, tx -> true),
+                rule("device", 20, Set.of(EntityType.DEVICE), false, tx -> true),
+                rule("local", 5, Set.of(), false, tx -> true));
+
+        Decision decision = validator.decide(transaction("a"), ResolvedEntities.NONE);
+
+        assertTrue(decision.isLegitimate());
+        assertEquals(List.of("local:a", "device:a", "reserve:a"), evaluated);
+    }
+
+    @Test
+    void resolvesOnlyForTransactionsStillStanding() {
+        TransactionValidator validator = validator(new RuleProperties(),
+                rule("local", 1, Set.of(), false, tx -> !tx.getId().equals("a")),
+                rule("person", 10, Set.of(EntityType.PERSON), false, tx -> !tx.getId().equals("b")),
+                rule("device", 20, Set.of(EntityType.DEVICE), false, tx -> true));
+
+        Map<String, String> reasons = validator.validate(List.of(transaction("a"), transaction("b"), transaction("c")))
+                .stream()
+                .collect(Collectors.toMap(decision -> decision.getTransaction().getId(), decision -> String.valueOf(decision.getRejectedBy())));
+
+        assertEquals(Map.of("a", "local", "b", "person", "c", "null"), reasons);
+        assertEquals(List.of(Set.of(EntityType.PERSON), Set.of(EntityType.DEVICE)), resolvedTypes);
+        assertEquals(List.of(List.of("b", "c"), List.of("c")), resolvedIds);
+    }
+
+    @Test
+    void resolvesEverythingAtOnceWhenNotStaged() {
+        RuleProperties properties = new RuleProperties();
+        properties.setStagedResolution(false);
+        TransactionValidator validator = validator(properties,
+                rule("local", 1, Set.of(), false, tx -> !tx.getId().equals("a")),
+                rule("person", 10, Set.of(EntityType.PERSON), false, tx -> true),
+                rule("device", 20, Set.of(EntityType.DEVICE), false, tx -> true));
+
+        validator.validate(List.of(transaction("a"), transaction("b")));
+
+        assertEquals(List.of(Set.of(EntityType.PERSON, EntityType.DEVICE)), resolvedTypes);
+        assertEquals(List.of(List.of("b")), resolvedIds);
+    }
+
+    @Test
+    void skipsResolutionOnceEveryTransactionIsRejected() {
+        TransactionValidator validator = validator(new RuleProperties(),
+                rule("local", 1, Set.of(), false, tx -> false),
+                rule("person", 10, Set.of(EntityType.PERSON), false, tx -> true));
+
+        List<Decision> decisions = validator.validate(List.of(transaction("a")));
+
+        assertEquals("local", decisions.get(0).getRejectedBy());
+        assertTrue(resolvedTypes.isEmpty());
+    }
+
+    @Test
+    void honoursCostOverridesAndDisabledRules() {
+        RuleProperties properties = new RuleProperties();
+        properties.getCosts().put("second", 0);
+        properties.getDisabled().addAll(Set.of("third", "reserve"));
+        TransactionValidator validator = validator(properties,
+                rule("first", 1, Set.of(), false, tx -> true),
+                rule("second", 2, Set.of(), false, tx -> true),
+                rule("third", 3, Set.of(), false, tx -> true),
+                rule("reserve", 4, Set.of(), true, tx -> true));
+
+        Decision decision = validator.decide(transaction("a"), ResolvedEntities.NONE);
+
+        assertNull(decision.getRejectedBy());
+        assertEquals(List.of("second:a", "first:a", "reserve:a"), evaluated);
+    }
+
+    private TransactionValidator validator(RuleProperties properties, TransactionRule... rules) {
+        return new TransactionValidator(List.of(rules), properties, resolver, new Metrics());
+    }
+
+    private TransactionRule rule(String name, int cost, Set<EntityType> requires, boolean reserves, Predicate<Transaction> test) {
+        return new TransactionRule() {
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int cost() {
+                return cost;
+            }
+
+            @Override
+            public Set<EntityType> requires() {
+                return requires;
+            }
+
+            @Override
+            public boolean reserves() {
+                return reserves;
+            }
+
+            @Override
+            public boolean test(Transaction transaction, ResolvedEntities entities) {
+                evaluated.add(name + ":" + transaction.getId());
+                return test.test(transaction);
+            }
+        };
+    }
+
+    private static Transaction transaction(String id) {
+        return new Transaction(id, BigDecimal.TEN, "sender", "recipient", "EE01", "EE02", "00:00", null, null);
+    }
+}
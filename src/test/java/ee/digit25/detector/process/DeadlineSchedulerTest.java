@@ -0,0 +1,63 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now(ZoneOffset.UTC);
+
+    private final SchedulerProperties properties = new SchedulerProperties();
+    private final DeadlineScheduler scheduler = new DeadlineScheduler(properties, new Metrics());
+
+    @Test
+    void ordersEarliestDeadlineFirstAndNoDeadlineLast() {
+        PriorityBlockingQueue<Transaction> queue = new PriorityBlockingQueue<>(4, DeadlineScheduler.EARLIEST_DEADLINE_FIRST);
+        queue.add(transaction("none", null));
+        queue.add(transaction("late", NOW.plusSeconds(30)));
+        queue.add(transaction("overdue", NOW.minusSeconds(1)));
+        queue.add(transaction("soon", NOW.plusSeconds(1)));
+
+        List<String> order = new ArrayList<>();
+        for (Transaction transaction = queue.poll(); transaction != null; transaction = queue.poll()) {
+            order.add(transaction.getId());
+        }
+
+        assertEquals(List.of("overdue", "soon", "late", "none"), order);
+    }
+
+    @Test
+    void flushesOnceSlackDropsToTheUrgentThreshold() {
+        properties.setUrgentSlack(Duration.ofSeconds(1));
+
+        assertEquals(0, scheduler.flushDelayNanos(transaction("tx-1", NOW.plusNanos(500_000_000))));
+        long delay = scheduler.flushDelayNanos(transaction("tx-2", LocalDateTime.now(ZoneOffset.UTC).plusSeconds(3)));
+        assertTrue(delay > Duration.ofMillis(1500).toNanos() && delay <= Duration.ofSeconds(2).toNanos(), "delay " + delay);
+        assertEquals(Long.MAX_VALUE, scheduler.flushDelayNanos(transaction("tx-3", null)));
+    }
+
+    @Test
+    void cannotFinishWithLessThanMinimumSlack() {
+        properties.setMinSlack(Duration.ofSeconds(1));
+
+        assertTrue(scheduler.cannotFinishInTime(transaction("tx-1", NOW.plusNanos(500_000_000))));
+        assertFalse(scheduler.cannotFinishInTime(transaction("tx-2", NOW.plusSeconds(10))));
+    }
+
+    private static Transaction transaction(String id, LocalDateTime deadline) {
+        return new Transaction(id, new BigDecimal("12.34"), "sender", "recipient", "EE01", "EE02", "00:00", NOW, deadline);
+    }
+}
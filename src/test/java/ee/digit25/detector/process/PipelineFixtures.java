@@ -0,0 +1,73 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared fixtures of the pipeline stage tests.
+ */
+final class PipelineFixtures {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private PipelineFixtures() {
+    }
+
+    /**
+     * Runs the stage on a thread of its own, performs the action and waits for {@code done} before stopping it.
+     */
+    static void run(Runnable stage, Runnable action, Future<?> done) throws Exception {
+        Thread thread = new Thread(stage);
+        thread.start();
+        try {
+            action.run();
+            done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    static Transaction register(InFlightTransactions inFlight, Transaction transaction) throws InterruptedException {
+        inFlight.acquire(1);
+        inFlight.register(transaction);
+        return transaction;
+    }
+
+    static Transaction transaction(String id, int deadlineSeconds) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return new Transaction(id, new BigDecimal("12.34"), "sender", "recipient", "EE01", "EE02", "00:00",
+                now, now.plusSeconds(deadlineSeconds));
+    }
+
+    /**
+     * In-flight transactions that tell when the last of them has completed.
+     */
+    static class TrackedInFlight extends InFlightTransactions {
+
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+        TrackedInFlight(PipelineProperties properties, Metrics metrics) {
+            super(properties, metrics);
+        }
+
+        @Override
+        public void complete(Transaction transaction) {
+            super.complete(transaction);
+            if (size() == 0) {
+                drained.complete(null);
+            }
+        }
+
+        CompletableFuture<Void> drained() {
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.ExecutionMode;
+import ee.digit25.detector.common.ExecutionProperties;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.transaction.EntityType;
+import ee.digit25.detector.domain.transaction.ResolvedEntities;
+import ee.digit25.detector.domain.transaction.TransactionEntityResolver;
+import ee.digit25.detector.domain.transaction.TransactionValidator;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import ee.digit25.detector.domain.transaction.rule.RuleProperties;
+import ee.digit25.detector.domain.transaction.rule.TransactionRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ee.digit25.detector.process.PipelineFixtures.register;
+import static ee.digit25.detector.process.PipelineFixtures.run;
+import static ee.digit25.detector.process.PipelineFixtures.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationStageTest {
+
+    private final PipelineProperties properties = new PipelineProperties();
+    private final Metrics metrics = new Metrics();
+    private final List<Verdict> verdicts = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Verdict> firstVerdict = new CompletableFuture<>();
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private final PipelineFixtures.TrackedInFlight inFlight = new PipelineFixtures.TrackedInFlight(properties, metrics);
+
+    @Test
+    void rejectsBatchThatKeepsFailingOnceOutOfRetries() throws Exception {
+        properties.setErrorBackoff(Duration.ofMillis(1));
+        properties.setMaxRetries(2);
+        ValidationStage stage = stage(new SchedulerProperties());
+
+        run(stage, () -> stage.submit(List.of(transaction("tx-1", 10))), firstVerdict);
+
+        assertEquals(3, resolutions.get());
+        assertEquals(Verdict.UNRESOLVED, verdicts.get(0).getRejectedBy());
+    }
+
+    @Test
+    void retriesBatchThatFailsBeforeDispatchInAsyncMode() throws Exception {
+        properties.setErrorBackoff(Duration.ofMillis(1));
+        properties.setMaxRetries(2);
+        ValidationStage stage = stage(new SchedulerProperties(), ExecutionMode.ASYNC);
+
+        run(stage, () -> stage.submit(List.of(transaction("tx-1", 10))), firstVerdict);
+
+        assertEquals(3, resolutions.get());
+        assertEquals(Verdict.UNRESOLVED, verdicts.get(0).getRejectedBy());
+    }
+
+    @Test
+    void rejectsExpiredTransactionWithoutLookups() throws Exception {
+        SchedulerProperties schedulerProperties = new SchedulerProperties();
+        schedulerProperties.setMinSlack(Duration.ofSeconds(1));
+        schedulerProperties.setExpiredPolicy(SchedulerProperties.ExpiredPolicy.REJECT);
+        ValidationStage stage = stage(schedulerProperties);
+        Transaction transaction = register(inFlight, transaction("tx-1", 0));
+
+        run(stage, () -> stage.submit(List.of(transaction)), firstVerdict);
+
+        assertEquals(0, resolutions.get());
+        assertEquals(1, verdicts.size());
+        assertEquals(Verdict.EXPIRED, verdicts.get(0).getRejectedBy());
+        assertFalse(verdicts.get(0).isLegitimate());
+    }
+
+    @Test
+    void dropsExpiredTransactionWithoutVerdict() throws Exception {
+        SchedulerProperties schedulerProperties = new SchedulerProperties();
+        schedulerProperties.setMinSlack(Duration.ofSeconds(1));
+        schedulerProperties.setExpiredPolicy(SchedulerProperties.ExpiredPolicy.SKIP);
+        ValidationStage stage = stage(schedulerProperties);
+        Transaction transaction = register(inFlight, transaction("tx-1", 0));
+
+        run(stage, () -> stage.submit(List.of(transaction)), inFlight.drained());
+
+        assertEquals(0, resolutions.get());
+        assertTrue(verdicts.isEmpty());
+    }
+
+    private ValidationStage stage(SchedulerProperties schedulerProperties) {
+        return stage(schedulerProperties, ExecutionMode.PLATFORM);
+    }
+
+    /**
+     * A stage whose resolver fails every lookup, in ASYNC mode before anything is dispatched. Allows a single
+     * outstanding batch, so a permit that is not given back stalls the stage.
+     */
+    private ValidationStage stage(SchedulerProperties schedulerProperties, ExecutionMode mode) {
+        ExecutionProperties execution = new ExecutionProperties();
+        execution.setMode(mode);
+        execution.setMaxOutstandingBatches(1);
+        DeadlineScheduler scheduler = new DeadlineScheduler(schedulerProperties, metrics);
+
+        TransactionEntityResolver resolver = new TransactionEntityResolver(null, null, null, null, null, null, null, null, null) {
+
+            @Override
+            public ResolvedEntities resolve(List<Transaction> transactions, Set<EntityType> types) {
+                resolutions.incrementAndGet();
+                throw new IllegalStateException("400 Bad Request");
+            }
+
+            @Override
+            public CompletableFuture<ResolvedEntities> resolveAsync(List<Transaction> transactions, Set<EntityType> types) {
+                return CompletableFuture.completedFuture(resolve(transactions, types));
+            }
+        };
+        TransactionValidator validator = new TransactionValidator(List.of(personRule()), new RuleProperties(), resolver, metrics);
+
+        VerdictSubmitter submitter = new VerdictSubmitter(null, inFlight, null, null, scheduler, properties, execution, metrics) {
+
+            @Override
+            public void submit(Verdict verdict) {
+                verdicts.add(verdict);
+                firstVerdict.complete(verdict);
+            }
+        };
+
+        return new ValidationStage(validator, submitter, scheduler, inFlight, properties, execution, metrics);
+    }
+
+    private static TransactionRule personRule() {
+        return new TransactionRule() {
+
+            @Override
+            public String name() {
+                return "person";
+            }
+
+            @Override
+            public int cost() {
+                return 10;
+            }
+
+            @Override
+            public Set<EntityType> requires() {
+                return Set.of(EntityType.PERSON);
+            }
+
+            @Override
+            public boolean test(Transaction transaction, ResolvedEntities entities) {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package ee.digit25.detector.process;
+
+import ee.digit25.detector.common.ExecutionMode;
+import ee.digit25.detector.common.ExecutionProperties;
+import ee.digit25.detector.common.cache.CacheProperties;
+import ee.digit25.detector.common.metrics.Metrics;
+import ee.digit25.detector.domain.account.AccountLedger;
+import ee.digit25.detector.domain.account.LedgerProperties;
+import ee.digit25.detector.domain.transaction.EntityCaches;
+import ee.digit25.detector.domain.transaction.external.TransactionVerifier;
+import ee.digit25.detector.domain.transaction.external.api.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static ee.digit25.detector.process.PipelineFixtures.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerdictSubmitterTest {
+
+    private final PipelineProperties properties = new PipelineProperties();
+    private final AccountLedger ledger = new AccountLedger(new LedgerProperties());
+    private final Metrics metrics = new Metrics();
+    private final SchedulerProperties schedulerProperties = new SchedulerProperties();
+    private final PipelineFixtures.TrackedInFlight inFlight;
+    private final List<List<String>> verified = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private final TransactionVerifier verifier = new TransactionVerifier(null, null, null) {
+
+        @Override
+        public void verify(List<String> ids) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("429 Too Many Requests");
+            }
+            verified.add(ids);
+        }
+    };
+
+    VerdictSubmitterTest() {
+        properties.setVerdictFlushInterval(Duration.ofMillis(1));
+        properties.setErrorBackoff(Duration.ofMillis(20));
+        inFlight = new PipelineFixtures.TrackedInFlight(properties, metrics);
+    }
+
+    @Test
+    void retriesFailedSubmissionKeepingTheReservation() throws Exception {
+        failuresLeft.set(2);
+        Transaction transaction = register(transaction("tx-1", 10));
+        ledger.reconcile("EE01", 100_00, System.nanoTime());
+        ledger.tryReserve("EE01", 12_34);
+
+        run(submitter -> submitter.submit(new Verdict(transaction, true, null)));
+
+        assertEquals(List.of(List.of("tx-1")), verified);
+        assertEquals(100_00 - 12_34, ledger.available("EE01"));
+        assertEquals(0, metrics.counter("verdicts.abandoned").sum());
+    }
+
+    @Test
+    void abandonsVerdictThatWouldMissItsDeadline() throws Exception {
+        failuresLeft.set(Integer.MAX_VALUE);
+        Transaction transaction = register(transaction("tx-1", 0));
+        ledger.reconcile("EE01", 100_00, System.nanoTime());
+        ledger.tryReserve("EE01", 12_34);
+
+        run(submitter -> submitter.submit(new Verdict(transaction, true, null)));
+
+        assertTrue(verified.isEmpty());
+        assertEquals(100_00, ledger.available("EE01"));
+        assertEquals(1, metrics.counter("verdicts.abandoned").sum());
+    }
+
+    @Test
+    void abandonsVerdictOutOfRetries() throws Exception {
+        failuresLeft.set(Integer.MAX_VALUE);
+        properties.setMaxRetries(2);
+        Transaction transaction = register(transaction("tx-1", 10));
+        ledger.reconcile("EE01", 100_00, System.nanoTime());
+        ledger.tryReserve("EE01", 12_34);
+
+        run(submitter -> submitter.submit(new Verdict(transaction, true, null)));
+
+        assertEquals(Integer.MAX_VALUE - 3, failuresLeft.get());
+        assertEquals(100_00, ledger.available("EE01"));
+    }
+
+    @Test
+    void flushesUrgentVerdictWithoutWaitingForTheBatch() throws Exception {
+        properties.setVerdictBatchSize(100);
+        properties.setVerdictFlushInterval(Duration.ofMinutes(1));
+        schedulerProperties.setUrgentSlack(Duration.ofSeconds(5));
+        Transaction later = register(transaction("tx-later", 60));
+        Transaction urgent = register(transaction("tx-urgent", 2));
+        ledger.reconcile("EE01", 100_00, System.nanoTime());
+        ledger.tryReserve("EE01", 12_34);
+        ledger.tryReserve("EE01", 12_34);
+
+        run(submitter -> {
+            submitter.submit(new Verdict(later, true, null));
+            submitter.submit(new Verdict(urgent, true, null));
+        });
+
+        assertEquals(1, verified.size());
+        assertEquals(Set.of("tx-later", "tx-urgent"), Set.copyOf(verified.get(0)));
+    }
+
+    @Test
+    void submitsVerdictsWithSlackTogetherOnceTheBatchIsFull() throws Exception {
+        properties.setVerdictBatchSize(3);
+        properties.setVerdictFlushInterval(Duration.ofMinutes(1));
+        List<Transaction> transactions = List.of(
+                register(transaction("tx-1", 60)), register(transaction("tx-2", 60)), register(transaction("tx-3", 60)));
+        ledger.reconcile("EE01", 100_00, System.nanoTime());
+        transactions.forEach(transaction -> ledger.tryReserve("EE01", 12_34));
+
+        run(submitter -> transactions.forEach(transaction -> submitter.submit(new Verdict(transaction, true, null))));
+
+        assertEquals(List.of(List.of("tx-1", "tx-2", "tx-3")), verified.stream().map(ids -> ids.stream().sorted().toList()).toList());
+    }
+
+    /**
+     * Runs a submitter until every registered transaction has completed.
+     */
+    private void run(Consumer<VerdictSubmitter> action) throws Exception {
+        ExecutionProperties execution = new ExecutionProperties();
+        execution.setMode(ExecutionMode.PLATFORM);
+        DeadlineScheduler scheduler = new DeadlineScheduler(schedulerProperties, metrics);
+        VerdictSubmitter submitter = new VerdictSubmitter(
+                verifier, inFlight, new EntityCaches(new CacheProperties(), metrics), ledger, scheduler, properties, execution, metrics);
+        try {
+            PipelineFixtures.run(submitter, () -> action.accept(submitter), inFlight.drained());
+        } finally {
+            submitter.shutdown();
+        }
+    }
+
+    private Transaction register(Transaction transaction) throws InterruptedException {
+        return PipelineFixtures.register(inFlight, transaction);
+    }
+}